@@ -1,6 +1,7 @@
 package dev.volix.lib.brigadier;
 
 import java.util.List;
+import java.util.function.Function;
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.connection.Connection;
@@ -13,22 +14,38 @@ import net.md_5.bungee.event.EventPriority;
 import dev.volix.lib.brigadier.command.CommandInstance;
 import dev.volix.lib.brigadier.context.CommandContext;
 import dev.volix.lib.brigadier.parameter.ParameterSet;
+import lombok.Setter;
 
 /**
  * @author Tobias Büser
  */
 public class BungeeBrigadierAdapter extends BrigadierAdapter<CommandSender> implements Listener {
 
+    /**
+     * Supplies the permission fingerprint of a sender, e.g. the primary group of the permission plugin.
+     * BungeeCord has no notion of permission groups, so it isn't set by default and every permission is checked
+     * with the sender. Only set it if senders with the same fingerprint have the same permissions, and call
+     * {@link dev.volix.lib.brigadier.permission.PermissionViews#invalidate(Object)} after a group changed.
+     */
+    @Setter private Function<CommandSender, Object> permissionFingerprint;
+
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onTabCompletion(final TabCompleteEvent event) {
         if (event.isCancelled())
             return;
 
+        // every tab packet passes this listener, so dismiss chat and commands
+        // of other plugins before parsing anything
+        final String cursor = event.getCursor();
+        final Brigadier brigadier = this.getBrigadier();
+        if (brigadier == null || !cursor.startsWith("/") || !brigadier.isRegisteredCommand(cursor))
+            return;
+
         final Connection connection = event.getSender();
         if (connection instanceof ProxiedPlayer) {
             final ProxiedPlayer player = (ProxiedPlayer) connection;
 
-            final List<String> suggestions = Brigadier.getInstance().executeTabCompletion(player, event.getCursor());
+            final List<String> suggestions = brigadier.executeTabCompletion(player, cursor);
             if (suggestions.size() > 0)
                 event.getSuggestions().clear();
             event.getSuggestions().addAll(suggestions);
@@ -41,7 +58,7 @@ public class BungeeBrigadierAdapter extends BrigadierAdapter<CommandSender> impl
             new Command(instance.getLabel(), instance.getPermission(), instance.getAliases().toArray(new String[0])) {
                 @Override
                 public void execute(final CommandSender sender, final String[] args) {
-                    Brigadier.getInstance().executeCommand(sender, instance.getLabel(), args);
+                    instance.getBrigadier().executeCommand(sender, instance.getLabel(), args);
                 }
             });
     }
@@ -51,6 +68,12 @@ public class BungeeBrigadierAdapter extends BrigadierAdapter<CommandSender> impl
         return commandSource.hasPermission(command.getPermission());
     }
 
+    @Override
+    public Object getPermissionFingerprint(final CommandSender commandSource) {
+        final Function<CommandSender, Object> fingerprint = this.permissionFingerprint;
+        return fingerprint == null ? null : fingerprint.apply(commandSource);
+    }
+
     @Override
     public void runAsync(final Runnable runnable) {
         ProxyServer.getInstance().getScheduler().runAsync(BungeeBrigadierPlugin.getInstance(), runnable);
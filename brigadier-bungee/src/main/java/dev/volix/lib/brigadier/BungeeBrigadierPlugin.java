@@ -1,6 +1,8 @@
 package dev.volix.lib.brigadier;
 
+import dev.volix.lib.brigadier.util.PlayerIndex;
 import lombok.Getter;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.plugin.Plugin;
 
 /**
@@ -10,12 +12,28 @@ public class BungeeBrigadierPlugin extends Plugin {
 
     @Getter private static BungeeBrigadierPlugin instance;
 
+    /**
+     * Index of every online player, maintained by the {@link BungeePlayerListener}
+     */
+    @Getter private final PlayerIndex<ProxiedPlayer> playerIndex = new PlayerIndex<>(ProxiedPlayer::getName, ProxiedPlayer::getUniqueId);
+
     @Override
     public void onEnable() {
         instance = this;
 
-        Brigadier.getInstance().setAdapter(new BungeeBrigadierAdapter());
-        Brigadier.getInstance().registerTypes(new PlayerParameterType());
+        // players can already be online if the plugin got reloaded
+        this.getProxy().getPlayers().forEach(this.playerIndex::add);
+        this.getProxy().getPluginManager().registerListener(this, new BungeePlayerListener(this.playerIndex));
+
+        final BungeeBrigadierAdapter adapter = new BungeeBrigadierAdapter();
+        this.getProxy().getPluginManager().registerListener(this, adapter);
+        Brigadier.getInstance().setAdapter(adapter);
+        Brigadier.getInstance().registerTypes(new PlayerParameterType(this.playerIndex));
+    }
+
+    @Override
+    public void onDisable() {
+        this.playerIndex.clear();
     }
 
 }
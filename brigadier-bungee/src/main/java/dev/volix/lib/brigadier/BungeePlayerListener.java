@@ -0,0 +1,35 @@
+package dev.volix.lib.brigadier;
+
+import dev.volix.lib.brigadier.util.PlayerIndex;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.event.PostLoginEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
+
+/**
+ * Keeps the {@link PlayerIndex} up to date with the players joining
+ * and leaving the proxy.
+ *
+ * @author Tobias Büser
+ */
+public class BungeePlayerListener implements Listener {
+
+    private final PlayerIndex<ProxiedPlayer> playerIndex;
+
+    public BungeePlayerListener(final PlayerIndex<ProxiedPlayer> playerIndex) {
+        this.playerIndex = playerIndex;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPostLogin(final PostLoginEvent event) {
+        this.playerIndex.add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onDisconnect(final PlayerDisconnectEvent event) {
+        this.playerIndex.remove(event.getPlayer());
+    }
+
+}
@@ -1,24 +1,50 @@
 package dev.volix.lib.brigadier;
 
-import java.util.UUID;
-import net.md_5.bungee.api.ProxyServer;
+import java.util.List;
+import java.util.function.BiPredicate;
+import lombok.Setter;
+import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import dev.volix.lib.brigadier.parameter.ParameterType;
+import dev.volix.lib.brigadier.util.PlayerIndex;
 
 /**
  * @author Tobias Büser
  */
 public class PlayerParameterType implements ParameterType<ProxiedPlayer> {
 
+    /**
+     * The index the players are resolved from, {@code null} to use the one of the {@link BungeeBrigadierPlugin}
+     */
+    private final PlayerIndex<ProxiedPlayer> playerIndex;
+
+    /**
+     * Determines if a player will be suggested to the command source
+     * during tab completion. By default every player is visible.
+     */
+    @Setter private BiPredicate<CommandSender, ProxiedPlayer> visibility = (source, player) -> true;
+
+    /**
+     * Creates the type with the shared player index of the {@link BungeeBrigadierPlugin},
+     * which is looked up as soon as a player is resolved, so the plugin has to be enabled by then.
+     */
+    public PlayerParameterType() {
+        this.playerIndex = null;
+    }
+
+    /**
+     * @param playerIndex The index the players are resolved from, can't be {@code null}
+     */
+    public PlayerParameterType(final PlayerIndex<ProxiedPlayer> playerIndex) {
+        if(playerIndex == null)
+            throw new NullPointerException("playerIndex can't be null");
+
+        this.playerIndex = playerIndex;
+    }
+
     @Override
     public ProxiedPlayer parse(final String string) {
-        try {
-            final UUID uuid = UUID.fromString(string);
-            return ProxyServer.getInstance().getPlayer(uuid);
-        } catch (final Exception ex) {
-            // string is not an unique id, ignore.
-        }
-        return ProxyServer.getInstance().getPlayer(string);
+        return this.getPlayerIndex().get(string);
     }
 
     @Override
@@ -26,4 +52,30 @@ public class PlayerParameterType implements ParameterType<ProxiedPlayer> {
         return ProxiedPlayer.class;
     }
 
+    @Override
+    public String getName() {
+        return "player";
+    }
+
+    @Override
+    public String getParser() {
+        return "minecraft:game_profile";
+    }
+
+    @Override
+    public <S> List<String> complete(final S commandSource, final String prefix) {
+        final CommandSender source = commandSource instanceof CommandSender ? (CommandSender) commandSource : null;
+        return this.getPlayerIndex().complete(prefix, player -> this.visibility.test(source, player));
+    }
+
+    private PlayerIndex<ProxiedPlayer> getPlayerIndex() {
+        if (this.playerIndex != null)
+            return this.playerIndex;
+
+        final BungeeBrigadierPlugin plugin = BungeeBrigadierPlugin.getInstance();
+        if(plugin == null)
+            throw new IllegalStateException("BungeeBrigadierPlugin hasn't been enabled, pass a PlayerIndex instead");
+        return plugin.getPlayerIndex();
+    }
+
 }
@@ -0,0 +1,127 @@
+package net.volix.dispatchalloc;
+
+import java.lang.management.ManagementFactory;
+import dev.volix.lib.brigadier.Brigadier;
+import dev.volix.lib.brigadier.BrigadierAdapter;
+import dev.volix.lib.brigadier.command.Command;
+import dev.volix.lib.brigadier.command.CommandInstance;
+import dev.volix.lib.brigadier.command.ExecutionResult;
+import dev.volix.lib.brigadier.command.ResultHandler;
+import dev.volix.lib.brigadier.context.CommandContext;
+import dev.volix.lib.brigadier.parameter.ParameterSet;
+
+/**
+ * Counts the bytes allocated by the dispatching of synchronous and rejected commands.
+ * Run it with a HotSpot JVM, e.g. {@code java -cp ... net.volix.dispatchalloc.DispatchAllocations}.
+ * Every scenario should print {@code 0} bytes per execution after the warm up.
+ *
+ * @author Tobias Büser
+ */
+public class DispatchAllocations {
+
+    private static final int WARM_UP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static long sum;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if(!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Counting allocations is not supported by this JVM.");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Brigadier.getInstance().setAdapter(new Adapter());
+        // synchronous executions only reuse their state if enabled
+        Brigadier.getInstance().setPooledDispatch(true);
+        Brigadier.getInstance().register(new Commands()).execute();
+
+        boolean allocates = false;
+        allocates |= measure(threads, "passed (sync)", "/sum", new String[]{ "3", "4" });
+        allocates |= measure(threads, "passed (sub command)", "sum", new String[]{ "twice", "3" });
+        allocates |= measure(threads, "command not found", "unknown", new String[]{ "3", "4" });
+        allocates |= measure(threads, "too few arguments", "sum", new String[]{ "3" });
+        allocates |= measure(threads, "no permission", "secret", new String[0]);
+
+        System.out.println(allocates ? "=> The dispatching allocates." : "=> The dispatching is allocation free.");
+    }
+
+    private static boolean measure(com.sun.management.ThreadMXBean threads, String name, String label, String[] args) {
+        long threadId = Thread.currentThread().getId();
+        for(int i = 0; i < WARM_UP; i++) {
+            Brigadier.getInstance().executeCommand("user", label, args);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for(int i = 0; i < ITERATIONS; i++) {
+            Brigadier.getInstance().executeCommand("user", label, args);
+        }
+        long bytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        System.out.println(String.format("%-22s %8.2f bytes per execution", name, (double) bytes / ITERATIONS));
+        // a few bytes are left for the measuring itself
+        return bytes > 1024;
+    }
+
+    public static class Commands {
+
+        @Command(label = "sum", usage = "<num1> <num2>")
+        public void sum(String user, CommandContext<String> context, ParameterSet parameter) {
+            // no parsing to keep the own allocations out of the measurement
+            sum += parameter.get(0).length() + parameter.get(1).length();
+        }
+
+        @Command(label = "twice", parent = "sum", usage = "<num>")
+        public void twice(String user, CommandContext<String> context, ParameterSet parameter) {
+            sum += parameter.get(0).length() * 2;
+        }
+
+        @Command(label = "secret", permission = "secret")
+        public void secret(String user, CommandContext<String> context, ParameterSet parameter) {
+        }
+
+        @ResultHandler
+        public void handleResult(String user, CommandInstance command, ExecutionResult<String> result) {
+            sum += result.getResult().ordinal();
+        }
+
+    }
+
+    private static class Context extends CommandContext<String> {
+        public Context() {
+            super(null, null, null);
+        }
+    }
+
+    private static class Adapter extends BrigadierAdapter<String> {
+
+        // the context is shared, as creating it is up to the adapter and not part of the dispatching
+        private final Context context = new Context();
+
+        @Override
+        public void handleRegister(String label, CommandInstance instance) {
+        }
+
+        @Override
+        public boolean checkPermission(String commandSource, CommandInstance command) {
+            return command.getPermission().isEmpty();
+        }
+
+        @Override
+        public void runAsync(Runnable runnable) {
+            runnable.run();
+        }
+
+        @Override
+        public Class<String> getCommandSourceClass() {
+            return String.class;
+        }
+
+        @Override
+        public CommandContext<String> constructCommandContext(String commandSource, CommandInstance command, ParameterSet parameter) {
+            return this.context;
+        }
+    }
+
+}
@@ -0,0 +1,317 @@
+package net.volix.stress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import dev.volix.lib.brigadier.Brigadier;
+import dev.volix.lib.brigadier.BrigadierAdapter;
+import dev.volix.lib.brigadier.command.Command;
+import dev.volix.lib.brigadier.command.CommandInstance;
+import dev.volix.lib.brigadier.command.ExecutionResult;
+import dev.volix.lib.brigadier.command.TabCompletor;
+import dev.volix.lib.brigadier.context.CommandContext;
+import dev.volix.lib.brigadier.parameter.ParameterSet;
+
+/**
+ * Macro stress test of the dispatching: thousands of sources issue a mix of synchronous, asynchronous,
+ * sub, forbidden, misspelled and invalid commands as well as tab completions from a growing amount of threads.
+ * For every amount of threads the throughput is printed together with the scaling compared to one thread
+ * and the amount of correctness violations, e.g. wrong result codes, arguments of another execution
+ * showing up inside of a command or asynchronous commands which never ran.
+ * <p>
+ * Run it with {@code java ... net.volix.stress.StressHarness [sources] [seconds per step] [max threads]}.
+ * The throughput can only scale up to the amount of cores, the harness prints it for comparison.
+ *
+ * @author Tobias Büser
+ */
+public class StressHarness {
+
+    private static final List<String> COMPLETIONS = Arrays.asList("1", "2", "3", "10", "20");
+
+    /**
+     * The suggestions of {@code sum }: the sub command first, then the tab completion method
+     */
+    private static final List<String> SUM_SUGGESTIONS = Arrays.asList("twice", "1", "2", "3", "10", "20");
+
+    /**
+     * The violations of the current step
+     */
+    private static final LongAdder violations = new LongAdder();
+    private static final Queue<String> examples = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The invocations of the command methods, which are compared with the passed results
+     */
+    private static final LongAdder syncInvocations = new LongAdder();
+    private static final LongAdder asyncInvocations = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        int sourceCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(8, cores * 2);
+
+        ExecutorService asyncPool = Executors.newFixedThreadPool(cores, runnable -> {
+            Thread thread = new Thread(runnable, "Async Commands");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Brigadier brigadier = new Brigadier();
+        brigadier.setAdapter(new Adapter(asyncPool));
+        brigadier.register(new StressCommands()).execute();
+
+        Source[] sources = new Source[sourceCount];
+        for(int i = 0; i < sourceCount; i++) {
+            // every tenth source is a member of the staff
+            sources[i] = new Source(i, i % 10 == 0);
+        }
+
+        System.out.println(String.format("%d sources, %d s per step, %d cores", sourceCount, seconds, cores));
+        System.out.println("threads      ops/s   speedup  efficiency  violations");
+
+        // warm up, so that the first step isn't about the JIT
+        run(brigadier, sources, Math.min(cores, maxThreads), Math.max(2, seconds));
+        violations.reset();
+        examples.clear();
+
+        double base = 0;
+        long totalViolations = 0;
+        for(int threads = 1; threads <= maxThreads; threads *= 2) {
+            double throughput = run(brigadier, sources, threads, seconds);
+            if(base == 0) base = throughput;
+
+            long stepViolations = violations.sumThenReset();
+            totalViolations += stepViolations;
+            System.out.println(String.format("%7d %10.0f %8.2fx %10.0f%% %11d", threads, throughput, throughput / base,
+                throughput / base / Math.min(threads, cores) * 100, stepViolations));
+        }
+
+        asyncPool.shutdown();
+        if(totalViolations > 0) {
+            System.out.println("=> " + totalViolations + " correctness violations, for example:");
+            examples.stream().limit(10).forEach(example -> System.out.println("   " + example));
+        } else {
+            System.out.println("=> No correctness violations.");
+        }
+    }
+
+    /**
+     * Runs the mixed workload with given amount of {@code threads} for given {@code seconds}.
+     *
+     * @return The operations per second
+     */
+    private static double run(Brigadier brigadier, Source[] sources, int threads, int seconds) throws InterruptedException {
+        syncInvocations.reset();
+        asyncInvocations.reset();
+        AtomicLong expectedSync = new AtomicLong();
+        AtomicLong expectedAsync = new AtomicLong();
+        AtomicLong operations = new AtomicLong();
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for(int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                long ops = 0, sync = 0, async = 0;
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while((ops & 255) != 0 || System.nanoTime() < end) {
+                        Source source = sources[random.nextInt(sources.length)];
+                        switch(operation(brigadier, source, random)) {
+                            case 1: sync++; break;
+                            case 2: async++; break;
+                            default: break;
+                        }
+                        ops++;
+                    }
+                } catch(Throwable throwable) {
+                    violation("exception " + throwable);
+                } finally {
+                    operations.addAndGet(ops);
+                    expectedSync.addAndGet(sync);
+                    expectedAsync.addAndGet(async);
+                    done.countDown();
+                }
+            }, "Stress #" + t).start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        double throughput = operations.get() / ((System.nanoTime() - begin) / 1e9);
+
+        // every passed asynchronous command has to run eventually
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(asyncInvocations.sum() < expectedAsync.get() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        if(syncInvocations.sum() != expectedSync.get())
+            violation("passed " + expectedSync.get() + " synchronous commands, but invoked " + syncInvocations.sum());
+        if(asyncInvocations.sum() != expectedAsync.get())
+            violation("passed " + expectedAsync.get() + " asynchronous commands, but invoked " + asyncInvocations.sum());
+        return throughput;
+    }
+
+    /**
+     * Executes one random operation and checks its result.
+     *
+     * @return {@code 1} if a synchronous command passed, {@code 2} if an asynchronous one passed, otherwise {@code 0}
+     */
+    private static int operation(Brigadier brigadier, Source source, ThreadLocalRandom random) {
+        int kind = random.nextInt(100);
+        int a = random.nextInt(1000), b = random.nextInt(1000);
+
+        if(kind < 40) {
+            ExecutionResult<Source> result = brigadier.executeCommand(source, "sum",
+                new String[]{ String.valueOf(a), String.valueOf(b), String.valueOf(a + b) });
+            expect(result, ExecutionResult.Code.PASSED, "sum");
+            return result.isPassed() ? 1 : 0;
+        } else if(kind < 50) {
+            ExecutionResult<Source> result = brigadier.executeCommand(source, "/sum",
+                new String[]{ "twice", String.valueOf(a), String.valueOf(a * 2) });
+            expect(result, ExecutionResult.Code.PASSED, "sum twice");
+            return result.isPassed() ? 1 : 0;
+        } else if(kind < 60) {
+            ExecutionResult<Source> result = brigadier.executeCommand(source, "kick", new String[]{ "player-" + a });
+            expect(result, source.staff ? ExecutionResult.Code.PASSED : ExecutionResult.Code.NO_PERMISSION, "kick");
+            return result.isPassed() ? 1 : 0;
+        } else if(kind < 70) {
+            ExecutionResult<Source> result = brigadier.executeCommand(source, "save",
+                new String[]{ String.valueOf(a), String.valueOf(a * 3) });
+            expect(result, ExecutionResult.Code.PASSED, "save");
+            return result.isPassed() ? 2 : 0;
+        } else if(kind < 75) {
+            ExecutionResult<Source> result = brigadier.executeCommand(source, "smu", new String[]{ "1", "2" });
+            expect(result, ExecutionResult.Code.COMMAND_NOT_FOUND, "smu");
+            if(!result.getSuggestions().equals(Collections.singletonList("sum")))
+                violation("smu suggested " + result.getSuggestions());
+        } else if(kind < 80) {
+            ExecutionResult<Source> result = brigadier.executeCommand(source, "sum", new String[]{ "x", "1", "1" });
+            expect(result, ExecutionResult.Code.INVALID_ARGUMENT, "sum x");
+            if(result.getArgumentIndex() != 0)
+                violation("sum x failed at argument " + result.getArgumentIndex());
+        } else {
+            List<String> suggestions = brigadier.executeTabCompletion(source, "sum ");
+            if(!suggestions.equals(SUM_SUGGESTIONS))
+                violation("tab completion of 'sum ' returned " + suggestions);
+        }
+        return 0;
+    }
+
+    private static void expect(ExecutionResult<Source> result, ExecutionResult.Code code, String operation) {
+        if(result.getResult() != code)
+            violation(operation + " resulted in " + result.getResult() + " instead of " + code);
+    }
+
+    private static void violation(String description) {
+        violations.increment();
+        if(examples.size() < 100) examples.add(description);
+    }
+
+    public static class StressCommands {
+
+        @Command(label = "sum", usage = "<num1:int> <num2:int> <expected:int>")
+        public void sum(Source source, Context context, ParameterSet parameter) {
+            // the arguments must belong to this execution, even though the parameter set is reused
+            if(parameter.getInt(0, 0) + parameter.getInt(1, 0) != parameter.getInt(2, -1))
+                violation("sum received " + parameter.getParameters());
+            syncInvocations.increment();
+        }
+
+        @Command(label = "twice", parent = "sum", usage = "<num:int> <expected:int>")
+        public void twice(Source source, Context context, ParameterSet parameter) {
+            if(parameter.getInt(0, 0) * 2 != parameter.getInt(1, -1))
+                violation("sum twice received " + parameter.getParameters());
+            syncInvocations.increment();
+        }
+
+        @Command(label = "kick", usage = "<target>", permission = "staff")
+        public void kick(Source source, Context context, ParameterSet parameter) {
+            if(!source.staff)
+                violation("kick executed by " + source);
+            syncInvocations.increment();
+        }
+
+        @Command(label = "save", usage = "<slot:int> <check:int>", async = true)
+        public void save(Source source, Context context, ParameterSet parameter) {
+            if(parameter.getInt(0, 0) * 3 != parameter.getInt(1, -1))
+                violation("save received " + parameter.getParameters());
+            asyncInvocations.increment();
+        }
+
+        @TabCompletor
+        public List<String> complete(Source source, int index) {
+            return new ArrayList<>(COMPLETIONS);
+        }
+
+    }
+
+    public static class Source {
+
+        private final int id;
+        private final boolean staff;
+
+        public Source(int id, boolean staff) {
+            this.id = id;
+            this.staff = staff;
+        }
+
+        @Override
+        public String toString() {
+            return "source-" + this.id;
+        }
+
+    }
+
+    private static class Context extends CommandContext<Source> {
+        public Context(Source commandSource, CommandInstance command, ParameterSet parameter) {
+            super(commandSource, command, parameter);
+        }
+    }
+
+    private static class Adapter extends BrigadierAdapter<Source> {
+
+        private final ExecutorService asyncPool;
+
+        public Adapter(ExecutorService asyncPool) {
+            this.asyncPool = asyncPool;
+        }
+
+        @Override
+        public void handleRegister(String label, CommandInstance instance) {
+            // we don't want to register the command somewhere else
+        }
+
+        @Override
+        public boolean checkPermission(Source commandSource, CommandInstance command) {
+            return commandSource.staff;
+        }
+
+        @Override
+        public void runAsync(Runnable runnable) {
+            this.asyncPool.execute(runnable);
+        }
+
+        @Override
+        public Class<Source> getCommandSourceClass() {
+            return Source.class;
+        }
+
+        @Override
+        public CommandContext<Source> constructCommandContext(Source commandSource, CommandInstance command, ParameterSet parameter) {
+            return new Context(commandSource, command, parameter);
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package net.volix.trafficreplay;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import dev.volix.lib.brigadier.Brigadier;
+import dev.volix.lib.brigadier.command.Command;
+import dev.volix.lib.brigadier.command.TabCompletor;
+import dev.volix.lib.brigadier.context.CommandContext;
+import dev.volix.lib.brigadier.parameter.ParameterSet;
+import dev.volix.lib.brigadier.replay.ReplayAdapter;
+import dev.volix.lib.brigadier.replay.ReplayReport;
+import dev.volix.lib.brigadier.replay.TrafficRecorder;
+import dev.volix.lib.brigadier.replay.TrafficReplay;
+
+/**
+ * Replays a traffic recording against the commands of this example and prints throughput and latencies.
+ * Run it with {@code java ... net.volix.trafficreplay.TrafficReplayTool <recording> [threads] [speed]},
+ * where a speed of {@code 0} replays as fast as possible. Without a recording, a synthetic
+ * recording is created first.
+ * <p>
+ * To replay the traffic of your own server, register your own command classes instead
+ * and create the sources your commands expect.
+ *
+ * @author Tobias Büser
+ */
+public class TrafficReplayTool {
+
+    public static void main(String[] args) throws Exception {
+        Path recording = args.length > 0 ? Paths.get(args[0]) : Files.createTempFile("brigadier", ".traffic");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+
+        if(args.length == 0) {
+            recording.toFile().deleteOnExit();
+            record(recording);
+        }
+
+        TrafficReplay replay = TrafficReplay.read(recording);
+        System.out.println(String.format("Replaying %d records (%.1f s of traffic) with %d threads at speed %s",
+            replay.size(), replay.getRecordedDuration() / 1e9, threads, speed == 0 ? "max" : speed));
+
+        // warm up first, so that the report isn't about the JIT
+        replay.replay(createBrigadier(), id -> "player-" + id, threads, 0);
+        ReplayReport report = replay.replay(createBrigadier(), id -> "player-" + id, threads, speed);
+        System.out.println(report);
+    }
+
+    private static Brigadier createBrigadier() {
+        Brigadier brigadier = new Brigadier();
+        brigadier.setAdapter(new ReplayAdapter<>(String.class));
+        brigadier.register(new Commands()).execute();
+        return brigadier;
+    }
+
+    /**
+     * Records synthetic traffic of 200 sources with a few typos and tab completions.
+     */
+    private static void record(Path recording) throws Exception {
+        Brigadier brigadier = createBrigadier();
+        Random random = new Random(42);
+        String[] lines = { "msg player-1 hello there", "pay player-2 100", "pay player-3 lots", "home", "home set base",
+            "hme", "msg", "spawn" };
+
+        try(TrafficRecorder recorder = new TrafficRecorder(recording)) {
+            brigadier.setTrafficRecorder(recorder);
+            for(int i = 0; i < 100_000; i++) {
+                String source = "player-" + random.nextInt(200);
+                String line = lines[random.nextInt(lines.length)];
+                if(random.nextInt(4) == 0) {
+                    brigadier.executeTabCompletion(source, line.substring(0, line.lastIndexOf(' ') + 1));
+                } else {
+                    String[] split = line.split(" ");
+                    brigadier.executeCommand(source, split[0], split, 1);
+                }
+                if(i % 1000 == 0) {
+                    // some bursts and pauses
+                    Thread.sleep(random.nextInt(3));
+                }
+            }
+        }
+    }
+
+    public static class Commands {
+
+        @Command(label = "msg", usage = "<target:string> <message:greedy>")
+        public void message(String source, CommandContext<String> context, ParameterSet parameter) {
+            String.join(" ", parameter.getRange(1));
+        }
+
+        @Command(label = "pay", usage = "<target> <amount:int>")
+        public void pay(String source, CommandContext<String> context, ParameterSet parameter) {
+            parameter.getInt(1, 0);
+        }
+
+        @Command(label = "home", aliases = { "h" })
+        public void home(String source, CommandContext<String> context, ParameterSet parameter) {
+        }
+
+        @Command(label = "set", parent = "home", usage = "<name>")
+        public void setHome(String source, CommandContext<String> context, ParameterSet parameter) {
+        }
+
+        @Command(label = "spawn", async = true)
+        public void spawn(String source, CommandContext<String> context, ParameterSet parameter) {
+        }
+
+        @TabCompletor
+        public List<String> completePlayers(String source, int index) {
+            return new ArrayList<>(Arrays.asList("player-1", "player-2", "player-3"));
+        }
+
+    }
+
+}
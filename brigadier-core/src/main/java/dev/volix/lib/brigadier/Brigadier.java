@@ -6,54 +6,154 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.Setter;
+import dev.volix.lib.brigadier.audit.AuditLog;
 import dev.volix.lib.brigadier.command.Command;
 import dev.volix.lib.brigadier.command.CommandInstance;
 import dev.volix.lib.brigadier.command.CommandReader;
 import dev.volix.lib.brigadier.command.CommandType;
+import dev.volix.lib.brigadier.command.LabelIndex;
+import dev.volix.lib.brigadier.command.ResultDispatcher;
+import dev.volix.lib.brigadier.command.SuggestionSink;
+import dev.volix.lib.brigadier.command.TabCompletionThrottle;
+import dev.volix.lib.brigadier.jfr.DispatchRecorder;
 import dev.volix.lib.brigadier.command.ExecutionResult;
 import dev.volix.lib.brigadier.parameter.BooleanParameter;
 import dev.volix.lib.brigadier.parameter.DoubleParameter;
+import dev.volix.lib.brigadier.parameter.InputLimits;
 import dev.volix.lib.brigadier.parameter.ParameterSet;
 import dev.volix.lib.brigadier.parameter.ParameterType;
+import dev.volix.lib.brigadier.permission.PermissionView;
+import dev.volix.lib.brigadier.permission.PermissionViews;
+import dev.volix.lib.brigadier.replay.TrafficRecorder;
 
 /**
+ * The registry and dispatcher of commands. Every instance has its own commands,
+ * parameter types and {@link BrigadierAdapter}, so that multiple independent
+ * dispatchers can be used inside of the same JVM (e.g. one per virtual server).
+ * <p>
+ * {@link #getInstance()} is the default instance, which is used by everything
+ * not bound to another instance.
+ *
  * @author Tobias Büser
  */
 public class Brigadier {
 
+    /**
+     * The default maximum amount of suggestions of one tab completion, more
+     * than the chat of a client shows at once
+     */
+    public static final int DEFAULT_MAX_TAB_SUGGESTIONS = 500;
+
     private static final ParameterType[] DEFAULT_TYPES = new ParameterType[] {
 		    new BooleanParameter(), new IntegerParameter(), new DoubleParameter()
     };
 
-    private static Brigadier instance;
-
     @Getter private final Map<Class<?>, ParameterType> registeredParameters = new HashMap<>();
+    private final Map<String, ParameterType> registeredParameterNames = new HashMap<>();
     @Getter private final Map<String, CommandInstance> registeredCommands = new HashMap<>();
+
+    /**
+     * Index of the labels and aliases of the {@link #registeredCommands}, which
+     * is rebuilt after every {@link #register(Object...)} process.
+     */
+    private volatile LabelIndex rootIndex = LabelIndex.EMPTY;
     private List<CommandInstance> cachedCommandsUnwound = null;
 
     private BrigadierAdapter adapter;
     @Setter @Getter private Object defaultResultHandler;
 
-    private Brigadier() {
+    /**
+     * Coalesces the tab completion requests per source, {@code null} if every request
+     * should be computed
+     */
+    @Setter @Getter private volatile TabCompletionThrottle tabCompletionThrottle;
+
+    /**
+     * The pruned views of the commands per permission fingerprint
+     *
+     * @see BrigadierAdapter#getPermissionFingerprint(Object)
+     */
+    @Getter private final PermissionViews permissionViews = new PermissionViews(this);
+
+    /**
+     * Delivers the results to the asynchronous result handlers
+     */
+    @Getter private final ResultDispatcher resultDispatcher = new ResultDispatcher(this::getInstanceAdapter);
+
+    /**
+     * Whether synchronous executions reuse the {@link ParameterSet} of the current thread and share
+     * their result, whose future is the already completed {@link ExecutionResult#COMPLETED}
+     * (completed with {@code null} instead of the source). Commands mustn't keep their parameter set
+     * or context after they returned then. Disabled by default
+     */
+    @Setter @Getter private volatile boolean pooledDispatch;
+
+    /**
+     * The maximum amount of suggestions of one tab completion
+     */
+    @Getter private volatile int maxTabSuggestions = DEFAULT_MAX_TAB_SUGGESTIONS;
+
+    /**
+     * The limits of the command lines, which are executed or tab completed
+     */
+    @Getter private volatile InputLimits inputLimits = InputLimits.DEFAULT;
+
+    /**
+     * The log every execution is published to, {@code null} if the executions aren't logged
+     */
+    @Setter @Getter private volatile AuditLog auditLog;
+
+    /**
+     * Records the executions and tab completions for a later replay, {@code null} if nothing is recorded
+     */
+    @Setter @Getter private volatile TrafficRecorder trafficRecorder;
+
+    /**
+     * The maximum edit distance and amount of labels suggested after a misspelled (sub) command
+     *
+     * @see ExecutionResult#getSuggestions()
+     */
+    @Getter private volatile int maxSuggestionDistance = 2;
+    @Getter private volatile int maxSuggestions = 3;
+
+    /**
+     * Creates a new instance, which is independent of every other
+     * instance and of the default {@link #getInstance()}.
+     */
+    public Brigadier() {
         this.registerTypes(DEFAULT_TYPES);
     }
 
+    /**
+     * @return The default instance
+     */
     public static Brigadier getInstance() {
-        if (instance == null) {
-            instance = new Brigadier();
-        }
-        return instance;
+        return DefaultInstance.INSTANCE;
     }
 
+    /**
+     * @return The adapter of the default instance ({@link #getInstance()}).
+     * @see #getInstanceAdapter()
+     */
     public static BrigadierAdapter getAdapter() {
         return Brigadier.getInstance().adapter;
     }
 
+    /**
+     * @return The adapter of this instance, {@code null} if not set yet
+     */
+    public BrigadierAdapter getInstanceAdapter() {
+        return this.adapter;
+    }
+
     /**
      * Gets a registered command from {@link #registeredCommands} with given {@code label}.
      * The match will be true, even if only one alias of the command ({@link Command#aliases()})
@@ -74,10 +174,22 @@ public class Brigadier {
         if(label.isEmpty())
             throw new IllegalArgumentException("label can't be empty");
 
-        return this.registeredCommands.values().stream()
-            .filter(instance -> instance.getLabel().equalsIgnoreCase(label)
-                || instance.getAliases().contains(label.toLowerCase()))
-            .findFirst();
+        return Optional.ofNullable(this.rootIndex.get(label));
+    }
+
+    /**
+     * Checks if the first argument of given {@code commandLine} is the label or
+     * an alias of a registered command, without parsing the line.
+     * Can be used to dismiss command lines quickly, which don't belong to brigadier.
+     *
+     * @param commandLine The command line, e.g. {@code /ban Superioz}
+     *
+     * @return The result. {@code true} if a command with this label is registered.
+     *
+     * @see LabelIndex#matchesFirstArgument(String)
+     */
+    public boolean isRegisteredCommand(final String commandLine) {
+        return this.rootIndex.matchesFirstArgument(commandLine);
     }
 
     /**
@@ -138,22 +250,95 @@ public class Brigadier {
 
     /**
      * Sets the {@link BrigadierAdapter} for handling different instance
-     * specific functions.
+     * specific functions. The adapter is bound to this instance afterwards
+     * ({@link BrigadierAdapter#getBrigadier()}).
      *
      * @param adapter The adapter, can't be null
      *
      * @throws NullPointerException  If the {@code adapter} is {@code null}
-     * @throws IllegalStateException If the {@link #adapter} is already set
+     * @throws IllegalStateException If the {@link #adapter} is already set or the
+     *                               adapter is already bound to another instance
      */
     public void setAdapter(final BrigadierAdapter adapter) {
         if(adapter == null)
             throw new NullPointerException("adapter can't be null");
         if(this.adapter != null)
             throw new IllegalArgumentException("there is already a brigadier instance set");
+        if(adapter.getBrigadier() != null && adapter.getBrigadier() != this)
+            throw new IllegalStateException("the adapter is already used by another brigadier instance");
 
+        adapter.brigadier = this;
         this.adapter = adapter;
     }
 
+    /**
+     * Sets the {@link InputLimits} for every command line, which is executed or tab
+     * completed from now on. Command lines exceeding them are rejected before their
+     * command is searched.
+     *
+     * @param inputLimits The limits, can't be null. Use {@link InputLimits#UNLIMITED} to disable them
+     *
+     * @throws NullPointerException If the {@code inputLimits} are {@code null}
+     */
+    public void setInputLimits(final InputLimits inputLimits) {
+        if(inputLimits == null)
+            throw new NullPointerException("inputLimits can't be null");
+
+        this.inputLimits = inputLimits;
+    }
+
+    /**
+     * Sets the limits of the similar labels, which are suggested after a misspelled (sub) command.
+     * The labels are looked up in an index built while registering, which is limited to
+     * {@link LabelIndex#MAX_SIMILARITY_DISTANCE} to keep the lookups cheap.
+     *
+     * @param maxDistance    The maximum amount of inserted, deleted or replaced characters, {@code 0} disables the suggestions
+     * @param maxSuggestions The maximum amount of suggested labels
+     *
+     * @throws IllegalArgumentException If one of the limits is negative or the distance too great
+     */
+    public void setSuggestionLimits(final int maxDistance, final int maxSuggestions) {
+        if(maxDistance < 0 || maxDistance > LabelIndex.MAX_SIMILARITY_DISTANCE)
+            throw new IllegalArgumentException(String.format("maxDistance has to be between 0 and %s, you supplied %s",
+                LabelIndex.MAX_SIMILARITY_DISTANCE, maxDistance));
+        if(maxSuggestions < 0)
+            throw new IllegalArgumentException(String.format("maxSuggestions can't be negative, you supplied %s", maxSuggestions));
+
+        this.maxSuggestionDistance = maxDistance;
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    /**
+     * Sets the maximum amount of suggestions of one tab completion. The tab completion methods
+     * stop being invoked (or their streams consumed) as soon as it is reached.
+     *
+     * @param maxTabSuggestions The maximum amount, can't be negative
+     *
+     * @throws IllegalArgumentException If the amount is negative
+     * @see SuggestionSink
+     */
+    public void setMaxTabSuggestions(final int maxTabSuggestions) {
+        if(maxTabSuggestions < 0)
+            throw new IllegalArgumentException(String.format("maxTabSuggestions can't be negative, you supplied %s", maxTabSuggestions));
+
+        this.maxTabSuggestions = maxTabSuggestions;
+    }
+
+    /**
+     * Gets the labels and aliases of the registered commands, which are similar to given {@code label}.
+     *
+     * @param label The misspelled label, a leading {@code /} is ignored
+     *
+     * @return The lower cased labels, the most similar first. Empty if none found
+     *
+     * @see #setSuggestionLimits(int, int)
+     */
+    public List<String> getSimilarCommands(final String label) {
+        if (label == null || this.maxSuggestionDistance == 0)
+            return Collections.emptyList();
+        return this.rootIndex.findSimilar(label, label.startsWith("/") ? 1 : 0, this.maxSuggestionDistance, this.maxSuggestions);
+    }
+
     /**
      * Gets a registered parameter by given {@code typeClass}
      *
@@ -171,8 +356,26 @@ public class Brigadier {
         return Optional.ofNullable(this.registeredParameters.get(typeClass));
     }
 
+    /**
+     * Gets a registered parameter by given {@code name}
+     *
+     * @param name name of the parameter {@link ParameterType#getName()}, case insensitive
+     *
+     * @return {@link Optional} of stored {@link ParameterType}
+     *
+     * @throws NullPointerException If the {@code name} is {@code null}
+     */
+    public Optional<ParameterType> getRegisteredType(final String name) {
+        if(name == null)
+            throw new NullPointerException("name can't be null");
+
+        return Optional.ofNullable(this.registeredParameterNames.get(name.toLowerCase(Locale.ROOT)));
+    }
+
     /**
      * Registers given {@link ParameterType}s in {@link #registeredParameters}.
+     * If another type with the same {@link ParameterType#getName()} (or alias) is already
+     * registered, the type can only be accessed by its class (or its other names).
      *
      * @param types The respective {@link ParameterType}s
      *
@@ -184,6 +387,10 @@ public class Brigadier {
                 throw new IllegalArgumentException(String.format("a parameter type of class %s is already registered!", type.getTypeClass()));
 
             this.registeredParameters.put(type.getTypeClass(), type);
+            this.registeredParameterNames.putIfAbsent(type.getName().toLowerCase(Locale.ROOT), type);
+            for (final Object alias : type.getAliases()) {
+                this.registeredParameterNames.putIfAbsent(((String) alias).toLowerCase(Locale.ROOT), type);
+            }
         }
     }
 
@@ -206,22 +413,73 @@ public class Brigadier {
      *
      * @throws NullPointerException If the {@code args} are null
      */
-    public <S> ExecutionResult<S> executeCommand(final S commandSource, String label, final String[] args) {
+    public <S> ExecutionResult<S> executeCommand(final S commandSource, final String label, final String[] args) {
+        return this.executeCommand(commandSource, label, args, 0);
+    }
+
+    /**
+     * Executes a {@link CommandInstance} stored inside the {@link #registeredCommands}
+     * with arguments, which are already split by the platform (e.g. the {@code args}
+     * of a bukkit command). The arguments are neither copied nor joined again.
+     *
+     * @param commandSource The sender of the command, can be null
+     * @param label         The label of the command
+     * @param args          The arguments after the label, can't be null
+     * @param offset        The index of the first argument inside of {@code args}
+     * @param <S>           The type of the command source
+     *
+     * @return The result of the execution. {@link ExecutionResult.Code#INPUT_LIMIT_EXCEEDED}
+     * if the arguments exceed the {@link #inputLimits}
+     *
+     * @throws NullPointerException If the {@code args} are null
+     * @see #executeCommand(Object, String, String[])
+     */
+    public <S> ExecutionResult<S> executeCommand(final S commandSource, final String label, final String[] args, final int offset) {
         if(args == null)
             throw new NullPointerException("args can't be null");
 
-        if (label.startsWith("/"))
-            label = label.substring(1);
+        final Object event = DispatchRecorder.begin(DispatchRecorder.Stage.EXECUTE_COMMAND);
+        if (!this.inputLimits.allows(label, args, offset)) {
+            DispatchRecorder.commit(event, null, ExecutionResult.Code.INPUT_LIMIT_EXCEEDED, commandSource, false);
+            final ExecutionResult<S> result = ExecutionResult.of(null, ExecutionResult.Code.INPUT_LIMIT_EXCEEDED);
+            // the oversized arguments are neither logged nor recorded
+            this.log(commandSource, label, null, 0, result);
+            return result;
+        }
+
+        // the slash is skipped instead of cut, so that the lookup doesn't allocate anything
+        final CommandInstance command = this.rootIndex.get(label, label.startsWith("/") ? 1 : 0);
+        if (command == null) {
+            DispatchRecorder.commit(event, label, ExecutionResult.Code.COMMAND_NOT_FOUND, commandSource, false);
+            final ExecutionResult<S> result = ExecutionResult.<S>of(null, ExecutionResult.Code.COMMAND_NOT_FOUND)
+                .withSuggestions(this.getSimilarCommands(label));
+            this.log(commandSource, label, args, offset, result);
+            return result;
+        }
+        final ExecutionResult<S> result = command.execute(commandSource, args, offset);
+        this.log(commandSource, label, args, offset, result);
+        command.handleResult(commandSource, result);
 
-        final Optional<CommandInstance> command = this.getCommand(label);
-        if (!command.isPresent()) {
-            return new ExecutionResult<>(null, ExecutionResult.Code.COMMAND_NOT_FOUND, null);
+        if (event != null) {
+            final CommandInstance executed = result.getCommand() == null ? command : result.getCommand();
+            DispatchRecorder.commit(event, executed.getPath(), result.getResult(), commandSource, executed.isAsync());
         }
-        final ExecutionResult<S> result = command.get().execute(commandSource, args);
-        command.get().handleResult(commandSource, result);
         return result;
     }
 
+    /**
+     * Publishes an execution to the {@link #auditLog} and the {@link #trafficRecorder}, if set.
+     */
+    private void log(final Object commandSource, final String label, final String[] args, final int offset,
+                     final ExecutionResult<?> result) {
+        final AuditLog auditLog = this.auditLog;
+        if (auditLog != null)
+            auditLog.publish(commandSource, label, args, offset, result);
+        final TrafficRecorder recorder = this.trafficRecorder;
+        if (recorder != null)
+            recorder.recordExecution(commandSource, label, args, offset, result.getResult().ordinal());
+    }
+
     /**
      * Takes given {@code cursor} to determine available suggestions.
      * If the command couldn't be found or if there are not suggestions available,
@@ -241,39 +499,223 @@ public class Brigadier {
      *                      e.g.: {@code /ban Superioz rea}
      * @param <S>           The type of the source
      *
-     * @return The suggestions as string list. Empty if the command couldn't be found or
-     * if there are not suggestions available.
+     * @return The suggestions as string list. Empty if the command couldn't be found,
+     * if the cursor exceeds the {@link #inputLimits} or if there are not suggestions available.
      *
      * @throws NullPointerException If the given {@code cursor} is {@code null}
      */
     public <S> List<String> executeTabCompletion(final S commandSource, final String cursor) {
         if(cursor == null)
             throw new NullPointerException("cursor can't be null");
+        if (!this.inputLimits.allowsLength(cursor) || !this.isRegisteredCommand(cursor)) {
+            return new ArrayList<>();
+        }
+
+        final Object event = DispatchRecorder.begin(DispatchRecorder.Stage.TAB_COMPLETION);
+        final List<String> suggestions = this.tabComplete(commandSource, cursor);
+        DispatchRecorder.commit(event, event == null ? null : cursor.split(" ", 2)[0], null, commandSource, false);
+        final TrafficRecorder recorder = this.trafficRecorder;
+        if (recorder != null)
+            recorder.recordTabCompletion(commandSource, cursor, suggestions.size());
+        return suggestions;
+    }
 
-        final List<String> parameter = ParameterSet.retrieveArguments(cursor);
-        if (parameter.size() == 1) {
+    /**
+     * Determines available suggestions from arguments, which are already split by the
+     * platform (e.g. the {@code args} of a bukkit tab completion). The last argument is
+     * the one currently being written and can be empty.
+     * The arguments are only joined and parsed again, if they contain argument groups ('"').
+     *
+     * @param commandSource The source who wants to tab complete.
+     * @param label         The label of the root command, can't be {@code null}
+     * @param args          The arguments after the label, can't be {@code null}
+     * @param offset        The index of the first argument inside of {@code args}
+     * @param <S>           The type of the source
+     *
+     * @return The suggestions as string list. Empty if the command couldn't be found or
+     * if there are not suggestions available.
+     *
+     * @throws NullPointerException If the given {@code label} or {@code args} is {@code null}
+     * @see #executeTabCompletion(Object, String)
+     */
+    public <S> List<String> executeTabCompletion(final S commandSource, String label, final String[] args, final int offset) {
+        if(label == null)
+            throw new NullPointerException("label can't be null");
+        if(args == null)
+            throw new NullPointerException("args can't be null");
+
+        if (!this.inputLimits.allows(label, args, offset)) {
+            return new ArrayList<>();
+        }
+
+        final Object event = DispatchRecorder.begin(DispatchRecorder.Stage.TAB_COMPLETION);
+        final List<String> suggestions;
+        if (args.length <= offset) {
+            suggestions = new ArrayList<>();
+        } else if (!ParameterSet.isPlain(args, offset, args.length - 1)) {
+            // argument groups have to be parsed from the whole command line
+            suggestions = this.tabComplete(commandSource, label + " " + String.join(" ", Arrays.asList(args).subList(offset, args.length)));
+        } else {
+            suggestions = this.tabComplete(commandSource, label, args, offset);
+        }
+        DispatchRecorder.commit(event, label, null, commandSource, false);
+        final TrafficRecorder recorder = this.trafficRecorder;
+        if (recorder != null)
+            recorder.recordTabCompletion(commandSource, label + " " + String.join(" ", Arrays.asList(args).subList(offset, args.length)),
+                suggestions.size());
+        return suggestions;
+    }
+
+    /**
+     * Parses given {@code cursor} and computes its suggestions.
+     *
+     * @see #executeTabCompletion(Object, String)
+     */
+    private <S> List<String> tabComplete(final S commandSource, final String cursor) {
+        final List<String> parameter = ParameterSet.retrieveArguments(cursor, false, this.inputLimits);
+        if (parameter == null || parameter.size() <= 1) {
             return new ArrayList<>();
         }
 
-        String rootLabel = parameter.get(0);
-        rootLabel = rootLabel.replaceFirst("[/]", "");
-        final CommandInstance root = this.getCommand(rootLabel).orElse(null);
+        final String[] args = parameter.toArray(new String[0]);
+        return this.tabComplete(commandSource, args[0], args, 1);
+    }
+
+    /**
+     * Computes the suggestions of already parsed arguments with respect
+     * to the {@link #tabCompletionThrottle}.
+     *
+     * @see #executeTabCompletion(Object, String, String[], int)
+     */
+    private <S> List<String> tabComplete(final S commandSource, final String label, final String[] args, final int offset) {
+        final TabCompletionThrottle throttle = this.tabCompletionThrottle;
+        return this.completeTabs(commandSource, label, args, offset, throttle == null ? null : throttle.begin(commandSource));
+    }
+
+    /**
+     * Determines available suggestions asynchronously by using {@link BrigadierAdapter#runAsync(Runnable)}.
+     * If a {@link #tabCompletionThrottle} is set, a newer request of the same source
+     * supersedes this one, even if this request is still waiting or being computed. The
+     * future of a superseded request completes with an empty list. A request within the
+     * minimum interval of the throttle is deferred until the interval elapsed, without
+     * being passed to {@link BrigadierAdapter#runAsync(Runnable)} before.
+     *
+     * @param commandSource The source who wants to tab complete.
+     * @param cursor        The current whole commandline written by the source, can't be {@code null}.
+     * @param <S>           The type of the source
+     *
+     * @return The future of the suggestions
+     *
+     * @throws NullPointerException If the given {@code cursor} is {@code null}
+     * @see #executeTabCompletion(Object, String)
+     */
+    public <S> CompletableFuture<List<String>> executeTabCompletionAsync(final S commandSource, final String cursor) {
+        if(cursor == null)
+            throw new NullPointerException("cursor can't be null");
+
+        final CompletableFuture<List<String>> future = new CompletableFuture<>();
+        final InputLimits limits = this.inputLimits;
+        if (!limits.allowsLength(cursor) || !this.isRegisteredCommand(cursor)) {
+            future.complete(new ArrayList<>());
+            return future;
+        }
+
+        // the ticket is taken right away, so that the order of the requests is kept
+        final TabCompletionThrottle throttle = this.tabCompletionThrottle;
+        final TabCompletionThrottle.Ticket ticket = throttle == null ? null : throttle.begin(commandSource);
+
+        final Runnable task = () -> {
+            try {
+                if (ticket != null && ticket.isSuperseded()) {
+                    future.complete(new ArrayList<>());
+                    return;
+                }
+
+                final Object event = DispatchRecorder.begin(DispatchRecorder.Stage.TAB_COMPLETION);
+                final List<String> parameter = ParameterSet.retrieveArguments(cursor, false, limits);
+                List<String> suggestions = new ArrayList<>();
+                if (parameter != null && parameter.size() > 1) {
+                    final String[] args = parameter.toArray(new String[0]);
+                    suggestions = this.completeTabs(commandSource, args[0], args, 1, ticket);
+                }
+                DispatchRecorder.commit(event, parameter == null || parameter.isEmpty() ? null : parameter.get(0), null, commandSource, true);
+                final TrafficRecorder recorder = this.trafficRecorder;
+                if (recorder != null)
+                    recorder.recordTabCompletion(commandSource, cursor, suggestions.size());
+                future.complete(suggestions);
+            } catch (final Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        };
+
+        // a throttled request is deferred without occupying a thread, until its slot came or a newer request replaced it
+        if (ticket == null) {
+            this.adapter.runAsync(task);
+        } else {
+            ticket.defer(() -> this.adapter.runAsync(task), () -> future.complete(new ArrayList<>()));
+        }
+        return future;
+    }
+
+    /**
+     * Computes the suggestions of already parsed arguments.
+     *
+     * @param ticket The ticket of the request, {@code null} if not throttled
+     *
+     * @see #executeTabCompletion(Object, String, String[], int)
+     */
+    private <S> List<String> completeTabs(final S commandSource, String label, final String[] args, final int offset,
+                                          final TabCompletionThrottle.Ticket ticket) {
+        if (label.startsWith("/"))
+            label = label.substring(1);
+        final CommandInstance root = label.isEmpty() ? null : this.getCommand(label).orElse(null);
         if (root == null) {
             return new ArrayList<>();
         }
 
-        final CommandInstance leaf = root.getPathLeaf(cursor.split(" "),
-            commandInstance -> Brigadier.getAdapter().checkPermission(commandSource, commandInstance));
+        final PermissionView view = this.permissionViews.get(commandSource);
+        final Predicate<CommandInstance> permissionCheck = view != null ? view::isPermitted : commandInstance
+            -> commandInstance.getPermission().isEmpty() || this.adapter.checkPermission(commandSource, commandInstance);
+        if (!permissionCheck.test(root)) {
+            return new ArrayList<>();
+        }
+
+        // the last argument is the one which is currently being written
+        final CommandInstance leaf = root.getPathLeaf(args, offset, args.length - 1, permissionCheck);
         if (leaf == null) {
             return new ArrayList<>();
         }
 
-        final String currentBuffer = parameter.get(parameter.size() - 1);
-        final List<String> suggestions = root.getTabSuggestions(commandSource, parameter.size() - 1);
-        if (!currentBuffer.trim().isEmpty()) {
-            suggestions.removeIf(suggestion -> !suggestion.startsWith(currentBuffer));
+        // the suggestions are filtered and capped while they are produced
+        final int index = args.length - offset;
+        final String currentBuffer = args[args.length - 1];
+        final String prefix = currentBuffer.trim().isEmpty() ? "" : currentBuffer;
+        if (ticket != null) {
+            final List<String> reused = ticket.reuse(leaf, index, prefix);
+            if (reused != null)
+                return reused;
         }
-        return suggestions;
+        final SuggestionSink sink = new SuggestionSink(prefix, this.maxTabSuggestions, ticket == null ? null : ticket::isSuperseded);
+
+        // the sub commands and the static suggestions of the usage (e.g. <on|off> or the names of an enum)
+        // are served from memory first
+        final int parameterIndex = index - leaf.getDepth();
+        if (parameterIndex == 0)
+            leaf.getSubCommandSuggestions(commandSource, view, sink);
+        final boolean constant = leaf.getStaticSuggestions(parameterIndex, sink);
+        root.getTabSuggestions(commandSource, index, sink);
+
+        // offer the suggestions of the parameter type, if the usage declares one with values not known upfront
+        final String type = leaf.getUsage().getType(parameterIndex);
+        final ParameterType<?> parameterType = type == null || constant || sink.isFull() ? null : this.getRegisteredType(type).orElse(null);
+        if (parameterType != null) {
+            final List<String> completed = parameterType.complete(commandSource, currentBuffer.trim(), sink.getRemaining());
+            for (final String suggestion : completed) {
+                if (!sink.addMatched(suggestion))
+                    break;
+            }
+        }
+        return ticket == null ? sink.getSuggestions() : ticket.complete(sink.getSuggestions(), leaf, index, prefix, sink.isFull());
     }
 
     /**
@@ -342,7 +784,7 @@ public class Brigadier {
                 ? this.commandClasses.stream().map(Collections::singletonList).collect(Collectors.toList())
                 : Collections.singletonList(this.commandClasses);
             for (final List<Object> instances : toRegister) {
-                final List<CommandInstance> roots = new CommandReader(this.capsulated, instances.toArray()).read();
+                final List<CommandInstance> roots = new CommandReader(Brigadier.this, this.capsulated, instances.toArray()).read();
 
                 for (final CommandInstance root : roots) {
                     if (root == null || Brigadier.this.registeredCommands.containsKey(root.getLabel()))
@@ -353,11 +795,21 @@ public class Brigadier {
                 }
             }
 
-            // recache the unwound commands, as the map itself changed
+            // reindex and recache the unwound commands, as the map itself changed
+            Brigadier.this.rootIndex = new LabelIndex(Brigadier.this.registeredCommands.values());
             Brigadier.this.cachedCommandsUnwound = null;
             Brigadier.this.getCommandsUnwound();
         }
 
     }
 
+    /**
+     * Holder of the default instance, which is created on first access.
+     */
+    private static final class DefaultInstance {
+
+        private static final Brigadier INSTANCE = new Brigadier();
+
+    }
+
 }
@@ -10,6 +10,20 @@ import dev.volix.lib.brigadier.parameter.ParameterSet;
  */
 public abstract class BrigadierAdapter<S> {
 
+    /**
+     * The instance this adapter has been set to, {@code null} if not set yet
+     *
+     * @see Brigadier#setAdapter(BrigadierAdapter)
+     */
+    Brigadier brigadier;
+
+    /**
+     * @return The instance this adapter has been set to, {@code null} if not set yet
+     */
+    public Brigadier getBrigadier() {
+        return this.brigadier;
+    }
+
     /**
      * Will be executed after the {@link Brigadier} registered the command
      * in its instance.
@@ -35,6 +49,24 @@ public abstract class BrigadierAdapter<S> {
      */
     public abstract boolean checkPermission(final S commandSource, final CommandInstance command);
 
+    /**
+     * Gets the permission fingerprint of given {@code commandSource}, e.g. the id of its permission
+     * group. Sources with equal fingerprints have to have the same permissions for every command,
+     * so that they can share one pruned {@link dev.volix.lib.brigadier.permission.PermissionView}
+     * instead of checking the permission of every command again.
+     * By default no fingerprint is supplied and every permission is checked with
+     * {@link #checkPermission(Object, CommandInstance)}.
+     *
+     * @param commandSource The source of the command execution
+     *
+     * @return The fingerprint or {@code null} if the source doesn't share its permissions
+     *
+     * @see dev.volix.lib.brigadier.permission.PermissionViews#invalidate(Object)
+     */
+    public Object getPermissionFingerprint(final S commandSource) {
+        return null;
+    }
+
     /**
      * Will be called when for example a command wants to
      * execute a command asynchronously.
@@ -45,6 +77,18 @@ public abstract class BrigadierAdapter<S> {
      */
     public abstract void runAsync(final Runnable runnable);
 
+    /**
+     * Will be called when something has to run on the main thread of
+     * the platform, e.g. a command arriving on another thread.
+     * Platforms without a main thread run the runnable right away,
+     * which is the default.
+     *
+     * @param runnable The runnable to be executed synchronously.
+     */
+    public void runSync(final Runnable runnable) {
+        runnable.run();
+    }
+
     /**
      * Gets the class for the command source executing the commands.
      * Can be an {@link Integer#getClass()} or whatever.
@@ -0,0 +1,410 @@
+package dev.volix.lib.brigadier.audit;
+
+import dev.volix.lib.brigadier.command.CommandInstance;
+import dev.volix.lib.brigadier.command.ExecutionResult;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import lombok.Getter;
+
+/**
+ * Append-only log of executed commands, e.g. to comply with logging every command of the staff.
+ * <p>
+ * Executions are published to a bounded lock-free {@link AuditRing} by
+ * {@link dev.volix.lib.brigadier.Brigadier#executeCommand(Object, String, String[], int)}, which is
+ * everything the dispatching pays for. A single background thread takes the records out of the ring
+ * in batches and appends them as lines to segment files ({@code audit-000001.log}, ...) inside of the
+ * {@link #directory}. A segment is never written again after it reached the {@link #segmentSize},
+ * every start of the log begins with a new segment.
+ * <p>
+ * A line consists of the ISO-8601 time, the source, the path of the command (or the label if not found),
+ * the arguments and the {@link ExecutionResult.Code}, separated by tabs. Tabs, line breaks and backslashes
+ * inside of the fields are escaped, so that clients can't forge lines. If records had to be dropped
+ * ({@link OverflowPolicy#DROP}), a line with the amount of dropped records is written instead.
+ * <p>
+ * The arguments are not copied when they are published, so the platform must not reuse the array
+ * of the arguments after the execution.
+ *
+ * @author Tobias Büser
+ * @see dev.volix.lib.brigadier.Brigadier#setAuditLog(AuditLog)
+ */
+public class AuditLog implements AutoCloseable {
+
+    /**
+     * The maximum amount of records written at once
+     */
+    private static final int BATCH_SIZE = 512;
+
+    /**
+     * The time the writer waits for new records, if the ring is empty
+     */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Getter private final Path directory;
+    @Getter private final long segmentSize;
+    @Getter private final OverflowPolicy overflowPolicy;
+    @Getter private final boolean memoryMapped;
+
+    /**
+     * Checks which results are logged, by default every result
+     */
+    @Getter private volatile Predicate<ExecutionResult<?>> filter = result -> true;
+
+    private final AuditRing ring;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * The amount of publishers, which passed the {@link #running} check and are offering
+     * their record, so that the writer doesn't stop before their records are in the ring
+     */
+    private final AtomicInteger publishing = new AtomicInteger();
+
+    /**
+     * The amount of records, which have been dropped or written
+     */
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * The current segment, only accessed by the {@link #writer}
+     */
+    private int segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long position;
+
+    /**
+     * Creates a log with a capacity of 8192 records, segments of 16 MiB, which drops records
+     * if the ring is full and writes without mapping the segments into memory.
+     *
+     * @param directory The directory of the segments, which is created if necessary
+     *
+     * @throws IOException If the first segment can't be created
+     */
+    public AuditLog(final Path directory) throws IOException {
+        this(directory, 8192, 16L << 20, OverflowPolicy.DROP, false);
+    }
+
+    /**
+     * Creates a log and starts its writer thread.
+     *
+     * @param directory      The directory of the segments, which is created if necessary
+     * @param capacity       The capacity of the ring, has to be a power of two
+     * @param segmentSize    The size of a segment in bytes, after which the next segment is begun
+     * @param overflowPolicy The behaviour if the ring is full
+     * @param memoryMapped   If the segments are mapped into memory instead of being written with a channel
+     *
+     * @throws IOException If the first segment can't be created
+     */
+    public AuditLog(final Path directory, final int capacity, final long segmentSize, final OverflowPolicy overflowPolicy,
+                    final boolean memoryMapped) throws IOException {
+        if(directory == null)
+            throw new NullPointerException("directory can't be null");
+        if(overflowPolicy == null)
+            throw new NullPointerException("overflowPolicy can't be null");
+        if(segmentSize <= 0 || segmentSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(String.format("segmentSize has to be between 1 and %s, you supplied %s", Integer.MAX_VALUE, segmentSize));
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.overflowPolicy = overflowPolicy;
+        this.memoryMapped = memoryMapped;
+        this.ring = new AuditRing(capacity);
+
+        Files.createDirectories(directory);
+        this.segmentIndex = findLastSegment(directory);
+        this.openSegment(0);
+
+        this.writer = new Thread(this::write, "Brigadier Audit Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Sets the filter, which decides if a result is logged (e.g. only commands with a permission).
+     *
+     * @param filter The filter, can't be {@code null}
+     *
+     * @throws NullPointerException If the {@code filter} is {@code null}
+     */
+    public void setFilter(final Predicate<ExecutionResult<?>> filter) {
+        if(filter == null)
+            throw new NullPointerException("filter can't be null");
+
+        this.filter = filter;
+    }
+
+    /**
+     * Publishes the execution of a command, if it passes the {@link #filter}.
+     * Nothing is formatted or allocated here, that's up to the writer thread.
+     *
+     * @param commandSource The source of the command
+     * @param label         The label of the command
+     * @param args          The arguments, which must not be modified afterwards. Can be {@code null}
+     * @param offset        The index of the first argument inside of {@code args}
+     * @param result        The result of the execution, can't be {@code null}
+     *
+     * @return The result. {@code false} if the record has been dropped or the log is closed
+     */
+    public boolean publish(final Object commandSource, final String label, final String[] args, final int offset,
+                           final ExecutionResult<?> result) {
+        if (!this.running || !this.filter.test(result))
+            return false;
+
+        this.publishing.incrementAndGet();
+        try {
+            // checked again after announcing the publish, as the writer might have seen no publisher before
+            if (!this.running)
+                return false;
+
+            final long time = System.currentTimeMillis();
+            while (!this.ring.offer(time, commandSource, label, args, offset, result)) {
+                if (this.overflowPolicy == OverflowPolicy.DROP || !this.running) {
+                    this.dropped.incrementAndGet();
+                    return false;
+                }
+                // wait for the writer to free a slot
+                LockSupport.parkNanos(10_000);
+            }
+            return true;
+        } finally {
+            this.publishing.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return The amount of records, which have been dropped since the log has been created
+     */
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    /**
+     * @return The amount of records, which have been written since the log has been created
+     */
+    public long getWritten() {
+        return this.written.get();
+    }
+
+    /**
+     * Stops accepting records, writes every published record and closes the current segment.
+     */
+    @Override
+    public void close() {
+        if (!this.running)
+            return;
+
+        this.running = false;
+        LockSupport.unpark(this.writer);
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The loop of the {@link #writer}, which runs until the log is closed and the ring is empty.
+     */
+    private void write() {
+        final StringBuilder builder = new StringBuilder(8192);
+        long reportedDrops = 0;
+
+        try {
+            while (true) {
+                final boolean running = this.running;
+
+                int count = 0;
+                int slot;
+                while (count < BATCH_SIZE && (slot = this.ring.peek()) >= 0) {
+                    this.format(builder, slot);
+                    this.ring.release(slot);
+                    count++;
+                }
+
+                final long drops = this.dropped.get();
+                if (drops != reportedDrops) {
+                    builder.append(Instant.now()).append("\tdropped ").append(drops - reportedDrops).append(" records\n");
+                    reportedDrops = drops;
+                }
+
+                if (builder.length() > 0) {
+                    this.append(builder.toString().getBytes(StandardCharsets.UTF_8));
+                    this.written.addAndGet(count);
+                    builder.setLength(0);
+                }
+
+                if (count == 0) {
+                    if (running) {
+                        LockSupport.parkNanos(this, IDLE_NANOS);
+                    } else if (this.publishing.get() == 0 && this.ring.peek() < 0) {
+                        // publishers which passed the running check before the log has been closed
+                        // might still offer their records, the ring stays empty once none is left
+                        break;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            this.running = false;
+        } finally {
+            try {
+                this.closeSegment();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Appends the record at given {@code slot} as a line to given {@code builder}.
+     */
+    private void format(final StringBuilder builder, final int slot) {
+        final ExecutionResult<?> result = this.ring.results[slot];
+        final CommandInstance command = result.getCommand();
+
+        builder.append(Instant.ofEpochMilli(this.ring.times[slot])).append('\t');
+        escape(builder, String.valueOf(this.ring.sources[slot]));
+        builder.append('\t');
+        escape(builder, command == null ? String.valueOf(this.ring.labels[slot]) : command.getPath());
+        builder.append('\t');
+
+        final String[] args = this.ring.arguments[slot];
+        if (args != null) {
+            for (int i = this.ring.offsets[slot]; i < args.length; i++) {
+                if (i > this.ring.offsets[slot])
+                    builder.append(' ');
+                escape(builder, args[i]);
+            }
+        }
+        builder.append('\t').append(result.getResult()).append('\n');
+    }
+
+    private static void escape(final StringBuilder builder, final String string) {
+        for (int i = 0; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            switch (c) {
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+    }
+
+    /**
+     * Appends given {@code bytes} to the current segment and begins the next segment
+     * if the current one would exceed the {@link #segmentSize}.
+     */
+    private void append(final byte[] bytes) throws IOException {
+        if (this.position > 0 && this.position + bytes.length > this.segmentSize
+            || this.mapped != null && bytes.length > this.mapped.remaining()) {
+            this.closeSegment();
+            this.openSegment(bytes.length);
+        }
+
+        if (this.mapped != null) {
+            this.mapped.put(bytes);
+        } else {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+        }
+        this.position += bytes.length;
+    }
+
+    /**
+     * Creates the next segment, which is big enough for at least {@code needed} bytes.
+     */
+    private void openSegment(final int needed) throws IOException {
+        this.segmentIndex++;
+        final Path file = this.directory.resolve(String.format("audit-%06d.log", this.segmentIndex));
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+            this.memoryMapped ? StandardOpenOption.READ : StandardOpenOption.APPEND);
+        this.position = 0;
+        if (this.memoryMapped) {
+            this.mapped = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(this.segmentSize, needed));
+        }
+    }
+
+    /**
+     * Writes the current segment to the disk and cuts the unused end of a mapped segment.
+     */
+    private void closeSegment() throws IOException {
+        if (this.channel == null)
+            return;
+
+        if (this.mapped != null) {
+            this.mapped.force();
+            this.mapped = null;
+            this.channel.truncate(this.position);
+        }
+        this.channel.force(false);
+        this.channel.close();
+        this.channel = null;
+    }
+
+    /**
+     * Finds the greatest index of the segments inside of given {@code directory}.
+     *
+     * @return The index or {@code 0} if there is no segment
+     */
+    private static int findLastSegment(final Path directory) throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "audit-*.log")) {
+            for (final Path file : stream) {
+                final String name = file.getFileName().toString();
+                try {
+                    last = Math.max(last, Integer.parseInt(name.substring(6, name.length() - 4)));
+                } catch (NumberFormatException ignored) {
+                    // not a segment of this log
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * The behaviour of {@link #publish(Object, String, String[], int, ExecutionResult)} if the ring is full
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * The record is dropped and counted, the amount is written to the log later on
+         */
+        DROP,
+
+        /**
+         * The publishing thread waits until the writer freed a slot, so that no record gets lost
+         */
+        BLOCK
+
+    }
+
+}
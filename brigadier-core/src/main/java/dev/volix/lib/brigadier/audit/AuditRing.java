@@ -0,0 +1,117 @@
+package dev.volix.lib.brigadier.audit;
+
+import dev.volix.lib.brigadier.command.ExecutionResult;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring buffer of audit records for multiple publishing threads and one
+ * consuming thread. The records are stored in preallocated parallel arrays, so publishing a
+ * record doesn't allocate anything.
+ * <p>
+ * Every slot has a sequence: a publisher may only claim the slot at position {@code p}
+ * if its sequence is {@code p}, and publishes it by setting the sequence to {@code p + 1}.
+ * The consumer may only read it at sequence {@code p + 1} and frees it for the next round
+ * by setting the sequence to {@code p + capacity}.
+ *
+ * @author Tobias Büser
+ */
+final class AuditRing {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+
+    /**
+     * The next position to be claimed by a publisher
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The next position to be consumed, only accessed by the consumer
+     */
+    private long head;
+
+    final long[] times;
+    final Object[] sources;
+    final String[] labels;
+    final String[][] arguments;
+    final int[] offsets;
+    final ExecutionResult<?>[] results;
+
+    AuditRing(final int capacity) {
+        if(capacity <= 0 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException(String.format("capacity has to be a power of two, you supplied %s", capacity));
+
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.sequences.set(i, i);
+        }
+        this.times = new long[capacity];
+        this.sources = new Object[capacity];
+        this.labels = new String[capacity];
+        this.arguments = new String[capacity][];
+        this.offsets = new int[capacity];
+        this.results = new ExecutionResult<?>[capacity];
+    }
+
+    /**
+     * Publishes a record, if a slot is free.
+     *
+     * @return The result. {@code false} if the ring is full.
+     */
+    boolean offer(final long time, final Object source, final String label, final String[] arguments, final int offset,
+                  final ExecutionResult<?> result) {
+        long position = this.tail.get();
+        while (true) {
+            final int slot = (int) position & this.mask;
+            final long difference = this.sequences.get(slot) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1))
+                    break;
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+
+        final int slot = (int) position & this.mask;
+        this.times[slot] = time;
+        this.sources[slot] = source;
+        this.labels[slot] = label;
+        this.arguments[slot] = arguments;
+        this.offsets[slot] = offset;
+        this.results[slot] = result;
+        this.sequences.lazySet(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * Gets the slot of the next published record. The slot has to be freed with {@link #release(int)}.
+     *
+     * @return The slot or {@code -1} if no record has been published yet
+     */
+    int peek() {
+        final int slot = (int) this.head & this.mask;
+        return this.sequences.get(slot) == this.head + 1 ? slot : -1;
+    }
+
+    /**
+     * Frees the slot returned by {@link #peek()} for the next round of publishers.
+     */
+    void release(final int slot) {
+        this.sources[slot] = null;
+        this.labels[slot] = null;
+        this.arguments[slot] = null;
+        this.results[slot] = null;
+        this.sequences.lazySet(slot, this.head + this.mask + 1);
+        this.head++;
+    }
+
+    int capacity() {
+        return this.mask + 1;
+    }
+
+}
@@ -76,4 +76,22 @@ public @interface Command {
      */
     boolean async() default false;
 
+    /**
+     * The amount of times a single command source can execute the command
+     * per {@link #rateLimitPeriod()}. Executions above the limit result in
+     * {@link ExecutionResult.Code#RATE_LIMITED} without the command being invoked.
+     *
+     * @return The limit. {@code 0} or less for no limit
+     *
+     * @see RateLimiter
+     */
+    int rateLimit() default 0;
+
+    /**
+     * The period of the {@link #rateLimit()} in milliseconds
+     *
+     * @return The period
+     */
+    long rateLimitPeriod() default 1000;
+
 }
@@ -3,18 +3,28 @@ package dev.volix.lib.brigadier.command;
 import dev.volix.lib.brigadier.Brigadier;
 import dev.volix.lib.brigadier.context.CommandContext;
 import dev.volix.lib.brigadier.context.CommandUsage;
+import dev.volix.lib.brigadier.jfr.DispatchRecorder;
 import dev.volix.lib.brigadier.parameter.ParameterSet;
+import dev.volix.lib.brigadier.parameter.ParameterType;
+import dev.volix.lib.brigadier.permission.PermissionView;
+import dev.volix.lib.brigadier.util.VersionedMap;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
+import java.util.stream.BaseStream;
 import java.util.stream.Collectors;
 import lombok.Getter;
 
@@ -25,6 +35,17 @@ import lombok.Getter;
  */
 public class CommandInstance {
 
+    /**
+     * The reusable arguments of the reflective invocations of every thread. Reusing them is safe
+     * even if the invoked method invokes another one, as the arguments are unpacked right away.
+     */
+    private static final ThreadLocal<Object[]> INVOCATION_ARGUMENTS = ThreadLocal.withInitial(() -> new Object[3]);
+
+    /**
+     * The instance this command belongs to
+     */
+    @Getter private final Brigadier brigadier;
+
     @Getter private String label;
     @Getter private String parentName;
     @Getter private List<String> aliases;
@@ -34,11 +55,23 @@ public class CommandInstance {
     @Getter private Class<?> commandTarget;
     @Getter private boolean async;
 
+    /**
+     * The rate limiter of this command, {@code null} if the command is not limited
+     *
+     * @see Command#rateLimit()
+     */
+    @Getter private RateLimiter rateLimiter;
+
     /**
      * The path of the command (e.g.: {@code root.parent.this})
      */
     @Getter String path;
 
+    /**
+     * The depth of the {@link #path}, calculated on first access
+     */
+    private int depth;
+
     /**
      * Type of the command, either this command instance is the root
      * command ({@link CommandType#ROOT}) or a sub command of a root command
@@ -65,7 +98,42 @@ public class CommandInstance {
      * All children of this command mapped with their
      * respective {@link Command#label()}
      */
-    @Getter private final Map<String, CommandInstance> children = new HashMap<>();
+    private final VersionedMap<String, CommandInstance> children = new VersionedMap<>();
+
+    /**
+     * Index of the labels and aliases of the {@link #children}, which is
+     * rebuilt as soon as the children changed
+     */
+    private volatile LabelIndex childIndex = LabelIndex.EMPTY;
+
+    /**
+     * The shared results of this command, one per {@link ExecutionResult.Code}
+     *
+     * @see ExecutionResult#of(CommandInstance, ExecutionResult.Code)
+     */
+    final ExecutionResult<?>[] results = ExecutionResult.createResults(this);
+
+    /**
+     * The shared {@link ExecutionResult.Code#INVALID_ARGUMENT} results of this command, one per parameter
+     *
+     * @see ExecutionResult#invalidArgument(CommandInstance, int)
+     */
+    ExecutionResult<?>[] invalidArgumentResults;
+
+    /**
+     * The registered {@link ParameterType}s of the parameters declared by the {@link #usage},
+     * {@code null} at the index of parameters without (known) type.
+     * Resolved again as soon as the amount of registered types changed.
+     */
+    private volatile ParameterType<?>[] parameterTypes;
+    private volatile int resolvedTypes = -1;
+
+    /**
+     * The static suggestions of the parameters declared by the {@link #usage}: their literal
+     * alternatives and the constants of their {@link #parameterTypes}, lower cased in alphabetical
+     * order. Compiled together with the types, so that they are served without invoking anything.
+     */
+    private volatile String[][] staticSuggestions;
 
     /**
      * The object instance of the class containing the command {@link #method}
@@ -91,7 +159,25 @@ public class CommandInstance {
      */
     Map<Method, Object> resultHandlerMap = new HashMap<>();
 
-    public CommandInstance(final Object methodClassObject, final Method method) {
+    /**
+     * The {@link #resultHandlerMap} as array, so that it can be iterated without allocating an iterator.
+     * Rebuilt as soon as the amount of handlers changed.
+     */
+    private volatile Handler[] resultHandlers = new Handler[0];
+
+    /**
+     * The tab completion methods of the {@link #tabCompletionMap} applying to this command, as pairs of
+     * method and class object. They are only read from this snapshot, so that concurrent tab completions
+     * don't modify the map. Rebuilt as soon as the amount of methods changed.
+     */
+    private volatile Object[] tabCompletors = new Object[0];
+    private volatile int tabCompletorCount;
+
+    public CommandInstance(final Brigadier brigadier, final Object methodClassObject, final Method method) {
+        if(brigadier == null)
+            throw new NullPointerException("brigadier can't be null");
+
+        this.brigadier = brigadier;
         this.methodClassObject = methodClassObject;
         this.method = method;
         if (!method.isAnnotationPresent(Command.class))
@@ -106,12 +192,20 @@ public class CommandInstance {
         this.description = command.desc();
         this.permission = command.permission();
         this.usage = new CommandUsage(this.label, command.usage());
-        this.commandTarget = command.target() == Object.class ? Brigadier.getAdapter().getCommandSourceClass() : command.target();
+        this.invalidArgumentResults = ExecutionResult.createInvalidArgumentResults(this, this.usage.getParams().size());
+        this.commandTarget = command.target() == Object.class ? brigadier.getInstanceAdapter().getCommandSourceClass() : command.target();
         this.async = command.async();
+        if (command.rateLimit() > 0) {
+            this.rateLimiter = new RateLimiter(command.rateLimit(), command.rateLimitPeriod(), TimeUnit.MILLISECONDS);
+        }
 
         this.commandType = this.parentName.isEmpty() ? CommandType.ROOT : CommandType.SUB;
     }
 
+    public CommandInstance(final Object methodClassObject, final Method method) {
+        this(Brigadier.getInstance(), methodClassObject, method);
+    }
+
     /**
      * Gets the path of the tree structure excluding this instance.
      *
@@ -122,6 +216,16 @@ public class CommandInstance {
         return whole.size() == 1 ? new ArrayList<>() : whole.subList(0, whole.size() - 1);
     }
 
+    /**
+     * All children of this command mapped with their
+     * respective {@link Command#label()}
+     *
+     * @return The modifiable children
+     */
+    public Map<String, CommandInstance> getChildren() {
+        return this.children;
+    }
+
     /**
      * Get the list of children of this instance.
      * I know, this method is named wrongly (child -> children), but
@@ -160,13 +264,90 @@ public class CommandInstance {
         if(label == null)
             throw new NullPointerException("label can't be null");
 
-        for (final CommandInstance command : this.getChildrens()) {
-            if (command.getLabel().equalsIgnoreCase(label)
-                || command.getAliases().contains(label.toLowerCase())) {
-                return Optional.of(command);
-            }
+        return Optional.ofNullable(this.findChild(label));
+    }
+
+    /**
+     * Gets the labels and aliases of the {@link #children}, which are similar to given {@code label},
+     * e.g. if {@link #getPathLeaf(String[])} stopped at a misspelled sub command.
+     *
+     * @param label The misspelled label
+     *
+     * @return The lower cased labels, the most similar first. Empty if none found
+     *
+     * @see Brigadier#setSuggestionLimits(int, int)
+     */
+    public List<String> getSimilarChildren(final String label) {
+        if (label == null || this.brigadier.getMaxSuggestionDistance() == 0 || this.findChild(label) != null)
+            return Collections.emptyList();
+        return this.getChildIndex().findSimilar(label, 0, this.brigadier.getMaxSuggestionDistance(), this.brigadier.getMaxSuggestions());
+    }
+
+    /**
+     * Gets the similar children of the argument at index {@code start}, which wasn't a sub command.
+     */
+    private List<String> getSimilarChildren(final String[] args, final int start) {
+        return start < args.length && !this.children.isEmpty() ? this.getSimilarChildren(args[start]) : Collections.<String>emptyList();
+    }
+
+    /**
+     * Searches the {@link #children} for given {@code label} by using the {@link #childIndex}.
+     * Labels take precedence over aliases.
+     *
+     * @param label The label/alias of the command
+     *
+     * @return The child or {@code null} if not found
+     */
+    private CommandInstance findChild(final String label) {
+        if (this.children.isEmpty())
+            return null;
+        return this.getChildIndex().get(label);
+    }
+
+    /**
+     * @return The {@link #childIndex}, up to date with the {@link #children}
+     */
+    private LabelIndex getChildIndex() {
+        LabelIndex index = this.childIndex;
+        final int version = this.children.getVersion();
+        if (index.getVersion() != version) {
+            this.childIndex = index = new LabelIndex(new ArrayList<>(this.children.values()), version);
+        }
+        return index;
+    }
+
+    /**
+     * Completes the labels and aliases of the {@link #children} given {@code commandSource} is allowed
+     * to execute, which start with the prefix of given {@code sink}. The labels are completed from
+     * the sorted {@link #childIndex}, which caches them per permission fingerprint, so the
+     * permissions are only checked once per distinct permission of the children.
+     *
+     * @param commandSource The source executing the tab completion
+     * @param sink          The sink collecting the labels, can't be {@code null}
+     * @param <S>           The type of command source
+     */
+    public <S> void getSubCommandSuggestions(final S commandSource, final SuggestionSink sink) {
+        this.getSubCommandSuggestions(commandSource, this.brigadier.getPermissionViews().get(commandSource), sink);
+    }
+
+    /**
+     * Completes the labels and aliases of the {@link #children} with the permissions of given {@code view}.
+     *
+     * @param view The permission view of the source, {@code null} to check the permissions with the adapter
+     *
+     * @see #getSubCommandSuggestions(Object, SuggestionSink)
+     */
+    public <S> void getSubCommandSuggestions(final S commandSource, final PermissionView view, final SuggestionSink sink) {
+        if(sink == null)
+            throw new NullPointerException("sink can't be null");
+        if (this.children.isEmpty())
+            return;
+
+        if (view != null) {
+            this.getChildIndex().complete(view, sink);
+        } else {
+            this.getChildIndex().complete(child -> child.isPermitted(commandSource, null), sink);
         }
-        return Optional.empty();
     }
 
     /**
@@ -175,44 +356,61 @@ public class CommandInstance {
      * @return The depth in inch squared
      */
     public int getDepth() {
-        return this.path.split("\\.").length;
+        if (this.depth == 0) {
+            this.depth = this.path.split("\\.").length;
+        }
+        return this.depth;
     }
 
     /**
      * Gets the last registered sub command of this instance from given {@code path}.
+     * Only the elements from index {@code from} (inclusive) to {@code to} (exclusive) are
+     * taken into account, so that the path doesn't need to be copied.
      *
      * @param path      The path to search the leaf from, can't be {@code null}
+     * @param from      The index of the first path element
+     * @param to        The index after the last path element
      * @param predicate The predicate to check each path step, can be {@code null}
      *
      * @return The last instance of the path or {@code this}, can be {@code null}
      *
      * @throws NullPointerException If the {@code path} is {@code null}
      */
-    public CommandInstance getPathLeaf(String[] path, final Predicate<CommandInstance> predicate) {
+    public CommandInstance getPathLeaf(final String[] path, final int from, final int to, final Predicate<CommandInstance> predicate) {
         if(path == null)
             throw new NullPointerException("path can't be null");
 
         CommandInstance children = this;
-        while (path.length != 0) {
-            if (!predicate.test(children)) {
+        for (int i = from; i < to; i++) {
+            if (predicate != null && !predicate.test(children)) {
                 return null;
             }
 
-            final String[] finalPath = path;
-            final Optional<CommandInstance> child = children.getChildren().values().stream()
-                .filter(subChild -> subChild.getLabel().equalsIgnoreCase(finalPath[0])
-                    || subChild.getAliases().contains(finalPath[0].toLowerCase())).findFirst();
-            if (child.isPresent()) {
-                children = child.get();
-
-                path = Arrays.copyOfRange(path, 1, path.length);
-                continue;
+            final CommandInstance child = children.findChild(path[i]);
+            if (child == null) {
+                break;
             }
-            break;
+            children = child;
         }
         return children;
     }
 
+    /**
+     * Gets the last registered sub command of this instance from given {@code path}.
+     *
+     * @param path      The path to search the leaf from, can't be {@code null}
+     * @param predicate The predicate to check each path step, can be {@code null}
+     *
+     * @return The last instance of the path or {@code this}, can be {@code null}
+     *
+     * @throws NullPointerException If the {@code path} is {@code null}
+     */
+    public CommandInstance getPathLeaf(final String[] path, final Predicate<CommandInstance> predicate) {
+        if(path == null)
+            throw new NullPointerException("path can't be null");
+        return this.getPathLeaf(path, 0, path.length, predicate);
+    }
+
     public CommandInstance getPathLeaf(final String[] path) {
         return this.getPathLeaf(path, instance -> true);
     }
@@ -228,48 +426,232 @@ public class CommandInstance {
      *
      * @throws NullPointerException If the {@code args} are null
      */
-    public <S> ExecutionResult<S> execute(final S commandSource, String[] args) {
+    public <S> ExecutionResult<S> execute(final S commandSource, final String[] args) {
+        return this.execute(commandSource, args, 0);
+    }
+
+    /**
+     * Executes this command class by using the given {@code commandSource} and {@code args}.
+     * The arguments are passed on to the {@link ParameterSet} without being copied or joined.
+     *
+     * @param commandSource The source of the command, can be null
+     * @param args          The arguments, can't be null
+     * @param offset        The index of the first argument inside of {@code args}
+     * @param <S>           The type of the source
+     *
+     * @return The result of the execution. {@link ExecutionResult.Code#PASSED} for success.
+     *
+     * @throws NullPointerException If the {@code args} are null
+     */
+    public <S> ExecutionResult<S> execute(final S commandSource, final String[] args, final int offset) {
         if(args == null)
             throw new NullPointerException("args can't be null");
 
+        final Object event = DispatchRecorder.begin(DispatchRecorder.Stage.DISPATCH);
+        final PermissionView view = this.brigadier.getPermissionViews().get(commandSource);
+
         // first check for master permission
-        if (!this.getPermission().isEmpty() && !Brigadier.getAdapter().checkPermission(commandSource, this)) {
-            return new ExecutionResult<>(null, ExecutionResult.Code.NO_PERMISSION, null);
+        if (!this.isPermitted(commandSource, view)) {
+            return this.reject(event, commandSource, null, ExecutionResult.Code.NO_PERMISSION);
         }
 
         // get the command of the last argument
         // can be a root command or a sub command
-        final CommandInstance children = this.getPathLeaf(args, instance
-            -> instance.getPermission().isEmpty() || Brigadier.getAdapter().checkPermission(commandSource, instance));
-        if (children == null) {
-            return new ExecutionResult<>(null, ExecutionResult.Code.NO_PERMISSION, null);
+        CommandInstance children = this;
+        int start = offset;
+        while (start < args.length) {
+            final CommandInstance child = children.findChild(args[start]);
+            if (child == null)
+                break;
+            if (!child.isPermitted(commandSource, view))
+                return this.reject(event, commandSource, null, ExecutionResult.Code.NO_PERMISSION);
+            children = child;
+            start++;
         }
 
-        args = Arrays.copyOfRange(args, children.getDepth() - 1, args.length);
-        final ParameterSet parameter = new ParameterSet(String.join(" ", args).trim());
-
         // check source
         if (commandSource != null && !children.getCommandTarget().isAssignableFrom(commandSource.getClass())) {
-            return new ExecutionResult<>(children, ExecutionResult.Code.WRONG_SOURCE, null);
+            return this.reject(event, commandSource, children, ExecutionResult.Code.WRONG_SOURCE);
         }
 
+        // only synchronous commands can reuse the parameter set of this thread, if the user opted in
+        final boolean pooled = !children.isAsync() && this.brigadier.isPooledDispatch();
+        final ParameterSet parameter = pooled
+            ? ParameterSet.borrow(this.brigadier, args, start) : new ParameterSet(this.brigadier, args, start);
+
         // check length of arguments
         if (parameter.size() < children.getUsage().getNeededSize()) {
-            return new ExecutionResult<>(children, ExecutionResult.Code.TOO_FEW_ARGUMENTS, null);
+            parameter.release();
+            return this.reject(event, commandSource, children, ExecutionResult.Code.TOO_FEW_ARGUMENTS)
+                .withSuggestions(children.getSimilarChildren(args, start));
+        }
+
+        // validate the types before the command is handed over to any thread
+        final int invalid = children.findInvalidArgument(parameter);
+        if (invalid >= 0) {
+            parameter.release();
+            if (event != null)
+                DispatchRecorder.commit(event, children.getPath(), ExecutionResult.Code.INVALID_ARGUMENT, commandSource, children.isAsync());
+            return ExecutionResult.<S>invalidArgument(children, invalid).withSuggestions(children.getSimilarChildren(args, start));
         }
 
+        // check the rate limit before the command is handed over to any thread
+        if (children.getRateLimiter() != null && !children.getRateLimiter().tryAcquire(commandSource)) {
+            parameter.release();
+            return this.reject(event, commandSource, children, ExecutionResult.Code.RATE_LIMITED);
+        }
+        DispatchRecorder.commit(event, children.getPath(), ExecutionResult.Code.PASSED, commandSource, children.isAsync());
+
         // execute command (async)
-        final CompletableFuture<S> future = new CompletableFuture<>();
         if (children.isAsync()) {
-            Brigadier.getAdapter().runAsync(() -> {
-                children.invokeMethod(commandSource, parameter);
+            final CommandInstance command = children;
+            final CompletableFuture<S> future = new CompletableFuture<>();
+            this.brigadier.getInstanceAdapter().runAsync(() -> {
+                command.invokeMethod(commandSource, parameter);
                 future.complete(commandSource);
             });
-        } else {
+            return new ExecutionResult<>(children, ExecutionResult.Code.PASSED, future);
+        }
+
+        if (!pooled) {
+            children.invokeMethod(commandSource, parameter);
+            return new ExecutionResult<>(children, ExecutionResult.Code.PASSED, CompletableFuture.completedFuture(commandSource));
+        }
+
+        try {
             children.invokeMethod(commandSource, parameter);
-            future.complete(commandSource);
+        } finally {
+            parameter.release();
+        }
+        return ExecutionResult.of(children, ExecutionResult.Code.PASSED);
+    }
+
+    /**
+     * Validates the arguments of the parameters, which declare a registered {@link ParameterType}
+     * inside of the {@link #usage}. Arguments of a {@link CommandUsage#GREEDY} parameter
+     * and arguments exceeding the usage are not validated.
+     *
+     * @param parameter The arguments
+     *
+     * @return The index of the first invalid argument or {@code -1} if every argument is valid
+     */
+    private int findInvalidArgument(final ParameterSet parameter) {
+        final ParameterType<?>[] types = this.getParameterTypes();
+        final int size = Math.min(types.length, parameter.size());
+        for (int i = 0; i < size; i++) {
+            if (types[i] != null && !types[i].accepts(parameter.get(i)))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the registered types of the parameters of the {@link #usage}, which are only
+     * resolved again if a new type has been registered.
+     *
+     * @return The types in order of the parameters
+     */
+    private ParameterType<?>[] getParameterTypes() {
+        final int registered = this.brigadier.getRegisteredParameters().size();
+        ParameterType<?>[] types = this.parameterTypes;
+        if (types != null && this.resolvedTypes == registered)
+            return types;
+
+        types = new ParameterType<?>[this.usage.getParams().size()];
+        final String[][] suggestions = new String[types.length][];
+        for (int i = 0; i < types.length; i++) {
+            final String type = this.usage.getType(i);
+            if (type != null && !this.usage.isGreedy(i))
+                types[i] = this.brigadier.getRegisteredType(type).orElse(null);
+
+            final TreeSet<String> values = new TreeSet<>(this.usage.getAlternatives(i));
+            if (types[i] != null) {
+                for (final Object constant : types[i].getConstants()) {
+                    values.add(((String) constant).toLowerCase(Locale.ROOT));
+                }
+            }
+            suggestions[i] = values.toArray(new String[0]);
+        }
+        this.staticSuggestions = suggestions;
+        this.parameterTypes = types;
+        this.resolvedTypes = registered;
+        return types;
+    }
+
+    /**
+     * Streams the static suggestions of the parameter at given {@code index} of the {@link #usage}
+     * into given {@code sink}: its literal alternatives (e.g. {@code <on|off>}) and the
+     * {@link ParameterType#getConstants() constants} of its type. The suggestions starting with the
+     * prefix of the sink (case insensitive) are found by a binary search, no method is invoked.
+     *
+     * @param index The index of the parameter
+     * @param sink  The sink collecting the suggestions, can't be {@code null}
+     *
+     * @return Whether the parameter has static suggestions at all
+     */
+    public boolean getStaticSuggestions(final int index, final SuggestionSink sink) {
+        if(sink == null)
+            throw new NullPointerException("sink can't be null");
+
+        this.getParameterTypes();
+        final String[][] suggestions = this.staticSuggestions;
+        if (index < 0 || index >= suggestions.length || suggestions[index].length == 0)
+            return false;
+
+        final String[] values = suggestions[index];
+        final String prefix = sink.getPrefix().toLowerCase(Locale.ROOT);
+        int i = Arrays.binarySearch(values, prefix);
+        if (i < 0) i = -i - 1;
+        while (i < values.length && values[i].startsWith(prefix) && sink.addMatched(values[i])) {
+            i++;
         }
-        return new ExecutionResult<>(children, ExecutionResult.Code.PASSED, future);
+        return true;
+    }
+
+    /**
+     * Checks if given {@code commandSource} is allowed to execute this command.
+     *
+     * @param commandSource The source of the command
+     * @param view          The permission view of the source, {@code null} to ask the adapter
+     *
+     * @return The result. {@code true} if the command has no permission or the source has it.
+     */
+    private boolean isPermitted(final Object commandSource, final PermissionView view) {
+        if (this.getPermission().isEmpty())
+            return true;
+        return view != null ? view.isPermitted(this) : this.brigadier.getInstanceAdapter().checkPermission(commandSource, this);
+    }
+
+    /**
+     * Gets the shared result of a failed execution.
+     *
+     * @param event         The recorded dispatch event, can be {@code null}
+     * @param commandSource The source of the command
+     * @param command       The command which failed, can be {@code null}
+     * @param code          The reason of the failure
+     * @param <S>           The type of the source
+     *
+     * @return The result
+     */
+    private <S> ExecutionResult<S> reject(final Object event, final S commandSource, final CommandInstance command,
+                                          final ExecutionResult.Code code) {
+        if (event != null) {
+            final CommandInstance recorded = command == null ? this : command;
+            DispatchRecorder.commit(event, recorded.getPath(), code, commandSource, recorded.isAsync());
+        }
+        return ExecutionResult.of(command, code);
+    }
+
+    /**
+     * Checks if any tab completion method is registered for the tree of this command.
+     *
+     * @return The result
+     *
+     * @see TabCompletor
+     */
+    public boolean hasTabCompletors() {
+        final CommandInstance root = this.root == null ? this : this.root;
+        return !root.tabCompletionMap.isEmpty();
     }
 
     /**
@@ -285,32 +667,82 @@ public class CommandInstance {
      * @return the suggestions as string list
      */
     public <S> List<String> getTabSuggestions(final S commandSource, final int index) {
+        return this.getTabSuggestions(commandSource, index, (BooleanSupplier) null);
+    }
+
+    /**
+     * Get tab suggestions for given {@code index}, which stops invoking the
+     * tab completion methods as soon as the request has been {@code cancelled}.
+     *
+     * @param commandSource The source executing the tab completion
+     * @param index         The index of the cursor, can't be less than {@code 1}
+     * @param cancelled     Checked before every tab completion method, can be {@code null}
+     * @param <S>           The type of command source
+     *
+     * @return the suggestions as string list
+     *
+     * @see TabCompletionThrottle
+     */
+    public <S> List<String> getTabSuggestions(final S commandSource, final int index, final BooleanSupplier cancelled) {
+        final SuggestionSink sink = new SuggestionSink("", Integer.MAX_VALUE, cancelled);
+        this.getTabSuggestions(commandSource, index, sink);
+        return sink.getSuggestions();
+    }
+
+    /**
+     * Streams the tab suggestions for given {@code index} into given {@code sink}. The tab completion
+     * methods are invoked one after another until the sink is full, a method returning a
+     * {@link java.util.stream.Stream} or {@link Iterator} is only consumed until then as well.
+     *
+     * @param commandSource The source executing the tab completion
+     * @param index         The index of the cursor, can't be less than {@code 1}
+     * @param sink          The sink filtering and collecting the suggestions, can't be {@code null}
+     * @param <S>           The type of command source
+     *
+     * @see SuggestionSink
+     */
+    public <S> void getTabSuggestions(final S commandSource, final int index, final SuggestionSink sink) {
         if(index <= 0)
             throw new IllegalArgumentException(String.format("The index can't be less or equals zero, you supplied %s", index));
+        if(sink == null)
+            throw new NullPointerException("sink can't be null");
 
         final CommandInstance root = this.root == null ? this : this.root;
+        final Object[] completors = root.getTabCompletors();
 
-        final Set<Method> methods = root.tabCompletionMap.keySet();
-        methods.removeIf(m -> {
-            final TabCompletor completor = m.getAnnotation(TabCompletor.class);
-            if (completor == null)
-                return true;
-            return !(completor.command().isEmpty() || completor.command().equalsIgnoreCase(root.label));
-        });
-
-        final List<String> suggestions = new ArrayList<>();
-        for (final Method method : methods) {
+        for (int i = 0; i < completors.length && !sink.isFull(); i += 2) {
+            final Method method = (Method) completors[i];
             try {
-                final List list = (List) method.invoke(root.tabCompletionMap.get(method), commandSource, index);
-                for (final Object o : list) {
-                    if (o instanceof String)
-                        suggestions.add((String) o);
+                if (method.getReturnType() == Void.TYPE) {
+                    method.invoke(completors[i + 1], commandSource, index, sink);
+                    continue;
+                }
+
+                final Object produced = method.invoke(completors[i + 1], commandSource, index);
+                if (produced instanceof BaseStream) {
+                    try (final BaseStream<?, ?> stream = (BaseStream<?, ?>) produced) {
+                        drain(stream.iterator(), sink);
+                    }
+                } else if (produced instanceof Iterator) {
+                    drain((Iterator<?>) produced, sink);
+                } else if (produced instanceof Iterable) {
+                    drain(((Iterable<?>) produced).iterator(), sink);
                 }
             } catch (final IllegalAccessException | InvocationTargetException e) {
                 // do nothing
             }
         }
-        return suggestions;
+    }
+
+    /**
+     * Adds the strings of given {@code iterator} to the {@code sink}, until it is full.
+     */
+    private static void drain(final Iterator<?> iterator, final SuggestionSink sink) {
+        while (iterator.hasNext()) {
+            final Object o = iterator.next();
+            if (o instanceof String && !sink.add((String) o))
+                return;
+        }
     }
 
     /**
@@ -323,16 +755,94 @@ public class CommandInstance {
      */
     public <S> void handleResult(final S commandSource, final ExecutionResult<S> result) {
         final CommandInstance root = this.root == null ? this : this.root;
-        final Set<Method> methods = root.resultHandlerMap.keySet();
+        final Handler[] handlers = root.getResultHandlers();
+        final Object event = DispatchRecorder.begin(DispatchRecorder.Stage.HANDLE_RESULT);
 
-        for (final Method method : methods) {
+        boolean deferred = false;
+        for (final Handler handler : handlers) {
+            if (handler.async) {
+                deferred = true;
+                continue;
+            }
             try {
-                method.invoke(root.resultHandlerMap.get(method),
+                invoke(handler.method, handler.target,
                     commandSource, result.getCommand() == null ? this : result.getCommand(), result);
             } catch (final IllegalAccessException | InvocationTargetException e) {
                 // do nothing
             }
         }
+        if (event != null) {
+            DispatchRecorder.commit(event, (result.getCommand() == null ? this : result.getCommand()).getPath(),
+                result.getResult(), commandSource, this.isAsync());
+        }
+
+        // the asynchronous handlers receive the result as soon as the execution completed
+        if (deferred) {
+            this.brigadier.getResultDispatcher().dispatch(commandSource, result.getFuture().orElse(null),
+                () -> this.handleResultAsync(commandSource, result, handlers));
+        }
+    }
+
+    /**
+     * Invokes the asynchronous result handlers of given {@code handlers}.
+     *
+     * @see #handleResult(Object, ExecutionResult)
+     */
+    private <S> void handleResultAsync(final S commandSource, final ExecutionResult<S> result, final Handler[] handlers) {
+        final Object event = DispatchRecorder.begin(DispatchRecorder.Stage.HANDLE_RESULT);
+        for (final Handler handler : handlers) {
+            if (!handler.async)
+                continue;
+            try {
+                invoke(handler.method, handler.target,
+                    commandSource, result.getCommand() == null ? this : result.getCommand(), result);
+            } catch (final IllegalAccessException | InvocationTargetException e) {
+                // do nothing
+            }
+        }
+        if (event != null) {
+            DispatchRecorder.commit(event, (result.getCommand() == null ? this : result.getCommand()).getPath(),
+                result.getResult(), commandSource, true);
+        }
+    }
+
+    /**
+     * @return The {@link #tabCompletors}, up to date with the {@link #tabCompletionMap}
+     */
+    private Object[] getTabCompletors() {
+        Object[] completors = this.tabCompletors;
+        final int size = this.tabCompletionMap.size();
+        if (this.tabCompletorCount != size) {
+            final List<Object> matching = new ArrayList<>();
+            for (final Map.Entry<Method, Object> entry : this.tabCompletionMap.entrySet()) {
+                final TabCompletor completor = entry.getKey().getAnnotation(TabCompletor.class);
+                if (completor != null && (completor.command().isEmpty() || completor.command().equalsIgnoreCase(this.label))) {
+                    matching.add(entry.getKey());
+                    matching.add(entry.getValue());
+                }
+            }
+            completors = matching.toArray();
+            this.tabCompletors = completors;
+            this.tabCompletorCount = size;
+        }
+        return completors;
+    }
+
+    /**
+     * @return The {@link #resultHandlers}, up to date with the {@link #resultHandlerMap}
+     */
+    private Handler[] getResultHandlers() {
+        Handler[] handlers = this.resultHandlers;
+        if (handlers.length != this.resultHandlerMap.size()) {
+            handlers = new Handler[this.resultHandlerMap.size()];
+            int i = 0;
+            for (final Map.Entry<Method, Object> entry : this.resultHandlerMap.entrySet()) {
+                final ResultHandler handler = entry.getKey().getAnnotation(ResultHandler.class);
+                handlers[i++] = new Handler(entry.getKey(), entry.getValue(), handler != null && handler.async());
+            }
+            this.resultHandlers = handlers;
+        }
+        return handlers;
     }
 
     /**
@@ -343,13 +853,59 @@ public class CommandInstance {
      * @param <S>           The type of the source
      */
     private <S> void invokeMethod(final S commandSource, final ParameterSet parameter) {
-        final CommandContext<S> context = Brigadier.getAdapter().constructCommandContext(commandSource, this, parameter);
+        final Object event = DispatchRecorder.begin(DispatchRecorder.Stage.INVOKE);
+        final CommandContext<S> context = this.brigadier.getInstanceAdapter().constructCommandContext(commandSource, this, parameter);
 
         try {
-            this.getMethod().invoke(this.getMethodClassObject(), commandSource, context, parameter);
+            invoke(this.getMethod(), this.getMethodClassObject(), commandSource, context, parameter);
         } catch (final Exception ex) {
             ex.printStackTrace();
         }
+        DispatchRecorder.commit(event, this.getPath(), null, commandSource, this.isAsync());
+    }
+
+    /**
+     * Invokes given {@code method} with three arguments without allocating a new array for them.
+     *
+     * @param method The method to invoke
+     * @param target The object to invoke the method on
+     *
+     * @throws IllegalAccessException    If the method is not accessible
+     * @throws InvocationTargetException If the method throws an exception
+     */
+    private static void invoke(final Method method, final Object target, final Object first, final Object second,
+                               final Object third) throws IllegalAccessException, InvocationTargetException {
+        final Object[] arguments = INVOCATION_ARGUMENTS.get();
+        arguments[0] = first;
+        arguments[1] = second;
+        arguments[2] = third;
+        try {
+            method.invoke(target, arguments);
+        } finally {
+            // don't keep the arguments alive
+            arguments[0] = arguments[1] = arguments[2] = null;
+        }
+    }
+
+    /**
+     * A {@link ResultHandler} method together with the object it is invoked on.
+     */
+    private static final class Handler {
+
+        private final Method method;
+        private final Object target;
+
+        /**
+         * Whether the handler is {@link ResultHandler#async()}
+         */
+        private final boolean async;
+
+        private Handler(final Method method, final Object target, final boolean async) {
+            this.method = method;
+            this.target = target;
+            this.async = async;
+        }
+
     }
 
 }
@@ -7,9 +7,11 @@ import dev.volix.lib.brigadier.util.Reflections;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.BaseStream;
 import java.util.stream.Collectors;
 
 /**
@@ -17,14 +19,23 @@ import java.util.stream.Collectors;
  */
 public class CommandReader {
 
+    private final Brigadier brigadier;
     private final boolean capsulated;
     private final Object[] commandClassObjects;
 
-    public CommandReader(final boolean capsulated, final Object... commandClassObjects) {
+    public CommandReader(final Brigadier brigadier, final boolean capsulated, final Object... commandClassObjects) {
+        if(brigadier == null)
+            throw new NullPointerException("brigadier can't be null");
+
+        this.brigadier = brigadier;
         this.capsulated = capsulated;
         this.commandClassObjects = commandClassObjects;
     }
 
+    public CommandReader(final boolean capsulated, final Object... commandClassObjects) {
+        this(Brigadier.getInstance(), capsulated, commandClassObjects);
+    }
+
     /**
      * Takes the {@link #commandClassObjects} and fetches every command
      * declared in this cluster.
@@ -46,7 +57,7 @@ public class CommandReader {
 
         // list all commands
         for (final Method m : commandMethods.keySet()) {
-            final CommandInstance instance = new CommandInstance(commandMethods.get(m), m);
+            final CommandInstance instance = new CommandInstance(this.brigadier, commandMethods.get(m), m);
             if (instance.getCommandType() == CommandType.ROOT) roots.add(instance);
 
             commands.put(instance.getLabel(), instance);
@@ -63,8 +74,8 @@ public class CommandReader {
 
         // check for empty result handlers
         final List<CommandInstance> emptyResultHandlers = roots.stream().filter(cmd -> cmd.resultHandlerMap.isEmpty()).collect(Collectors.toList());
-        if (!emptyResultHandlers.isEmpty() && Brigadier.getInstance().getDefaultResultHandler() != null) {
-            this.initHandleMethods(emptyResultHandlers, Brigadier.getInstance().getDefaultResultHandler());
+        if (!emptyResultHandlers.isEmpty() && this.brigadier.getDefaultResultHandler() != null) {
+            this.initHandleMethods(emptyResultHandlers, this.brigadier.getDefaultResultHandler());
         }
 
         return roots;
@@ -83,7 +94,7 @@ public class CommandReader {
                 // if the command reader is not capsulated from the already
                 // registered commands, we can search for our parent there as well.
                 if (!this.capsulated) {
-                    final Optional<CommandInstance> command = Brigadier.getInstance().getCommandUnwound(cmd.getParentName());
+                    final Optional<CommandInstance> command = this.brigadier.getCommandUnwound(cmd.getParentName());
                     if (command.isPresent()) parent = command.get();
                     else continue;
                 } else {
@@ -147,12 +158,22 @@ public class CommandReader {
     }
 
     /**
-     * Checks if the method is tabcompletable. Example method:
+     * Checks if the method is tabcompletable. Example methods:
      * <pre>
      * &#64;TabCompletor
      * public List&#60;String&#62; onTabComplete(int index) {
      * }
+     *
+     * &#64;TabCompletor
+     * public Stream&#60;String&#62; onTabComplete(int index) {
+     * }
+     *
+     * &#64;TabCompletor
+     * public void onTabComplete(int index, SuggestionSink sink) {
+     * }
      * </pre>
+     * Besides {@link List}s every {@link Iterable}, {@link Iterator} or {@link BaseStream}
+     * can be returned, which is only consumed until enough suggestions have been collected.
      * The method name is not important, though.
      *
      * @param method The method to be checked
@@ -160,8 +181,14 @@ public class CommandReader {
      * @return The result. {@code true} = the method has the tab completor structure.
      */
     private boolean checkTabCompleteMethod(final Method method) {
-        return Reflections.checkMethodErasure(method, List.class, TabCompletor.class,
-            new Class<?>[] {Brigadier.getAdapter().getCommandSourceClass(), int.class});
+        final Class<?> sourceClass = this.brigadier.getInstanceAdapter().getCommandSourceClass();
+        if (method.getReturnType() == Void.TYPE) {
+            return method.getParameterCount() == 3 && Reflections.checkMethodErasure(method, TabCompletor.class,
+                new Class<?>[] {sourceClass, int.class, SuggestionSink.class});
+        }
+        return Reflections.checkMethodErasure(method, Iterable.class, TabCompletor.class, new Class<?>[] {sourceClass, int.class})
+            || Reflections.checkMethodErasure(method, Iterator.class, TabCompletor.class, new Class<?>[] {sourceClass, int.class})
+            || Reflections.checkMethodErasure(method, BaseStream.class, TabCompletor.class, new Class<?>[] {sourceClass, int.class});
     }
 
     /**
@@ -179,7 +206,7 @@ public class CommandReader {
      */
     private boolean checkResultHandlerMethod(final Method method) {
         return Reflections.checkMethodErasure(method, ResultHandler.class,
-            new Class<?>[] {Brigadier.getAdapter().getCommandSourceClass(), CommandInstance.class, ExecutionResult.class});
+            new Class<?>[] {this.brigadier.getInstanceAdapter().getCommandSourceClass(), CommandInstance.class, ExecutionResult.class});
     }
 
     /**
@@ -197,7 +224,7 @@ public class CommandReader {
      * @return The result. {@code true} = the method has the tab completor structure.
      */
     private boolean checkMethod(final Method method) {
-        final Class<?>[] parameters = new Class<?>[] {Brigadier.getAdapter().getCommandSourceClass(),
+        final Class<?>[] parameters = new Class<?>[] {this.brigadier.getInstanceAdapter().getCommandSourceClass(),
                                                       CommandContext.class, ParameterSet.class};
         return Reflections.checkMethodErasure(method, Command.class, parameters);
     }
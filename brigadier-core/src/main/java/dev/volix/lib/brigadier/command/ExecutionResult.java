@@ -1,28 +1,166 @@
 package dev.volix.lib.brigadier.command;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import lombok.Getter;
 
 /**
+ * The result of a command execution.
+ * <p>
+ * Results of rejected executions are immutable and shared (see {@link #of(CommandInstance, Code)}),
+ * so that the dispatching doesn't allocate a new result for every rejection. Passed executions
+ * get a future of their own, which completes with the command source. Only if the pooled dispatch
+ * is enabled ({@link dev.volix.lib.brigadier.Brigadier#setPooledDispatch(boolean)}), the results of
+ * synchronous executions are shared as well and contain the already completed {@link #COMPLETED} future.
+ *
  * @author Tobias Büser
  */
 public class ExecutionResult<S> {
 
+    /**
+     * The future of every synchronous execution. It is already completed with
+     * {@code null}, as the command has been executed before the result is returned.
+     */
+    public static final CompletableFuture<?> COMPLETED = new CompletedFuture();
+
+    /**
+     * The codes, as {@link Code#values()} clones the array on every call
+     */
+    private static final Code[] CODES = Code.values();
+
+    /**
+     * The shared results without command, one per code
+     */
+    private static final ExecutionResult<?>[] SHARED = createResults(null);
+
     @Getter private final CommandInstance command;
     @Getter private final Code result;
     @Getter private final boolean passed;
-    private final CompletableFuture<S> future;
+    private final Optional<CompletableFuture<S>> future;
+
+    /**
+     * The index of the parameter, which failed the validation of its type
+     * ({@link Code#INVALID_ARGUMENT}), otherwise {@code -1}.
+     * The index is relative to the parameters of the {@link #command}, so it can be
+     * used with {@link dev.volix.lib.brigadier.context.CommandUsage#getParam(int)}.
+     */
+    @Getter private final int argumentIndex;
+
+    /**
+     * The labels the source probably meant, if the label ({@link Code#COMMAND_NOT_FOUND}) or the
+     * argument after the command (e.g. {@link Code#TOO_FEW_ARGUMENTS}) is a misspelled (sub) command.
+     * The most similar label comes first, empty if there is no similar label.
+     *
+     * @see dev.volix.lib.brigadier.Brigadier#setSuggestionLimits(int, int)
+     */
+    @Getter private final List<String> suggestions;
 
     public ExecutionResult(final CommandInstance command, final Code result, final CompletableFuture<S> future) {
+        this(command, result, future, -1);
+    }
+
+    public ExecutionResult(final CommandInstance command, final Code result, final CompletableFuture<S> future, final int argumentIndex) {
+        this(command, result, future, argumentIndex, Collections.emptyList());
+    }
+
+    public ExecutionResult(final CommandInstance command, final Code result, final CompletableFuture<S> future, final int argumentIndex,
+                           final List<String> suggestions) {
+        if(suggestions == null)
+            throw new NullPointerException("suggestions can't be null");
+
         this.command = command;
         this.result = result;
         this.passed = result == Code.PASSED;
-        this.future = future;
+        this.future = Optional.ofNullable(future);
+        this.argumentIndex = argumentIndex;
+        this.suggestions = Collections.unmodifiableList(suggestions);
+    }
+
+    /**
+     * Gets the shared result of given {@code command} and {@code code}.
+     * If the {@code code} is {@link Code#PASSED}, the result contains the {@link #COMPLETED} future,
+     * otherwise it doesn't contain a future at all.
+     *
+     * @param command The command, can be {@code null}
+     * @param code    The code of the result, can't be {@code null}
+     * @param <S>     The type of the source
+     *
+     * @return The immutable result
+     */
+    @SuppressWarnings("unchecked")
+    public static <S> ExecutionResult<S> of(final CommandInstance command, final Code code) {
+        final ExecutionResult<?>[] results = command == null ? SHARED : command.results;
+        return (ExecutionResult<S>) results[code.ordinal()];
+    }
+
+    /**
+     * Creates one result per code for given {@code command}.
+     *
+     * @param command The command, can be {@code null}
+     *
+     * @return The results in order of the {@link Code#ordinal()}
+     */
+    @SuppressWarnings("unchecked")
+    static ExecutionResult<?>[] createResults(final CommandInstance command) {
+        final ExecutionResult<?>[] results = new ExecutionResult<?>[CODES.length];
+        for (final Code code : CODES) {
+            results[code.ordinal()] = new ExecutionResult<>(command, code,
+                code == Code.PASSED ? (CompletableFuture<Object>) COMPLETED : null);
+        }
+        return results;
+    }
+
+    /**
+     * Gets the shared result of given {@code command} with {@link Code#INVALID_ARGUMENT}
+     * at given {@code argumentIndex}.
+     *
+     * @param command       The command, can't be {@code null}
+     * @param argumentIndex The index of the invalid parameter of the {@link CommandInstance#getUsage()}
+     * @param <S>           The type of the source
+     *
+     * @return The immutable result
+     */
+    @SuppressWarnings("unchecked")
+    public static <S> ExecutionResult<S> invalidArgument(final CommandInstance command, final int argumentIndex) {
+        final ExecutionResult<?>[] results = command.invalidArgumentResults;
+        if (results != null && argumentIndex < results.length)
+            return (ExecutionResult<S>) results[argumentIndex];
+        return new ExecutionResult<>(command, Code.INVALID_ARGUMENT, null, argumentIndex);
+    }
+
+    /**
+     * Creates one {@link Code#INVALID_ARGUMENT} result per parameter of given {@code command}.
+     *
+     * @param command The command, can't be {@code null}
+     * @param size    The amount of parameters
+     *
+     * @return The results in order of the parameters
+     */
+    static ExecutionResult<?>[] createInvalidArgumentResults(final CommandInstance command, final int size) {
+        final ExecutionResult<?>[] results = new ExecutionResult<?>[size];
+        for (int i = 0; i < size; i++) {
+            results[i] = new ExecutionResult<>(command, Code.INVALID_ARGUMENT, null, i);
+        }
+        return results;
+    }
+
+    /**
+     * Gets a copy of this result with given {@code suggestions}.
+     *
+     * @param suggestions The similar labels, can't be {@code null}
+     *
+     * @return This result if there are no {@code suggestions}, otherwise the copy
+     */
+    public ExecutionResult<S> withSuggestions(final List<String> suggestions) {
+        if (suggestions.isEmpty())
+            return this;
+        return new ExecutionResult<>(this.command, this.result, this.future.orElse(null), this.argumentIndex, suggestions);
     }
 
     public Optional<CompletableFuture<S>> getFuture() {
-        return Optional.ofNullable(this.future);
+        return this.future;
     }
 
     public enum Code {
@@ -31,7 +169,31 @@ public class ExecutionResult<S> {
         COMMAND_NOT_FOUND,
         TOO_FEW_ARGUMENTS,
         WRONG_SOURCE,
-        NO_PERMISSION
+        NO_PERMISSION,
+        RATE_LIMITED,
+        INPUT_LIMIT_EXCEEDED,
+        INVALID_ARGUMENT
+
+    }
+
+    /**
+     * A future, which is already completed and can't be changed anymore.
+     */
+    private static final class CompletedFuture extends CompletableFuture<Object> {
+
+        private CompletedFuture() {
+            super.complete(null);
+        }
+
+        @Override
+        public void obtrudeValue(final Object value) {
+            throw new UnsupportedOperationException("the shared future can't be changed");
+        }
+
+        @Override
+        public void obtrudeException(final Throwable ex) {
+            throw new UnsupportedOperationException("the shared future can't be changed");
+        }
 
     }
 
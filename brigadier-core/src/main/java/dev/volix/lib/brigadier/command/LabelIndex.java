@@ -0,0 +1,361 @@
+package dev.volix.lib.brigadier.command;
+
+import dev.volix.lib.brigadier.permission.PermissionView;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Immutable index of the labels and aliases of multiple {@link CommandInstance}s.
+ * Labels take precedence over aliases if both are the same.
+ * <p>
+ * Besides the usual lookup, the index can check if the first argument of a whole
+ * command line is a known label, without parsing the line or allocating anything.
+ * That way unrelated command lines can be dismissed very quickly.
+ * <p>
+ * Misspelled labels can be looked up with {@link #findSimilar(String, int, int, int)}, which
+ * searches an index of the labels and aliases with deleted characters built together with the index.
+ * <p>
+ * The labels and aliases starting with a prefix can be completed with {@link #complete(PermissionView, SuggestionSink)}.
+ * The labels a source is allowed to see are cached per {@link PermissionView}, so completing is a lookup.
+ * Sources without a view are completed with {@link #complete(Predicate, SuggestionSink)}, which caches the
+ * labels per set of distinct permissions of the commands the source has, so the permissions are checked
+ * once per distinct permission instead of once per command.
+ *
+ * @author Tobias Büser
+ */
+public final class LabelIndex {
+
+    /**
+     * The maximum edit distance of {@link #findSimilar(String, int, int, int)}
+     */
+    public static final int MAX_SIMILARITY_DISTANCE = SimilarLabels.MAX_DISTANCE;
+
+    /**
+     * The maximum amount of cached permission fingerprints per index
+     */
+    private static final int MAX_FINGERPRINTS = 256;
+
+    /**
+     * An index without any label
+     */
+    public static final LabelIndex EMPTY = new LabelIndex(new ArrayList<>());
+
+    /**
+     * The lower cased labels and aliases mapped with their respective command
+     */
+    private final Map<String, CommandInstance> commands = new HashMap<>();
+
+    /**
+     * The lower cased labels and aliases, where the index of the
+     * array equals the length of the labels inside.
+     */
+    private final String[][] labelsByLength;
+
+    /**
+     * The version of the commands this index has been built from
+     *
+     * @see dev.volix.lib.brigadier.util.VersionedMap#getVersion()
+     */
+    private final int version;
+
+    /**
+     * The lower cased labels and aliases for the lookup of similar labels
+     */
+    private final SimilarLabels similarLabels;
+
+    /**
+     * The lower cased labels and aliases in alphabetical order
+     */
+    private final String[] sortedLabels;
+
+    /**
+     * The index of the permission of the command of every {@link #sortedLabels} inside
+     * of {@link #permissions}, {@code -1} if the command has no permission
+     */
+    private final int[] permissionIndices;
+
+    /**
+     * One command per distinct permission of the commands
+     */
+    private final CommandInstance[] permissions;
+
+    /**
+     * The permitted {@link #sortedLabels} mapped with the permission fingerprint they are permitted for
+     */
+    private final Map<BitSet, String[]> permittedLabels = new ConcurrentHashMap<>();
+
+    /**
+     * The permitted {@link #sortedLabels} mapped with the view they are permitted for. The views are
+     * referenced weakly, so that the labels are dropped together with views which have been replaced.
+     */
+    private final Map<PermissionView, String[]> viewLabels = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public LabelIndex(final Collection<CommandInstance> instances) {
+        this(instances, 0);
+    }
+
+    /**
+     * @param instances The commands, can't be {@code null}
+     * @param version   The version of the commands, so that an outdated index can be noticed
+     */
+    public LabelIndex(final Collection<CommandInstance> instances, final int version) {
+        this.version = version;
+        for (final CommandInstance instance : instances) {
+            this.commands.put(instance.getLabel().toLowerCase(Locale.ROOT), instance);
+        }
+        for (final CommandInstance instance : instances) {
+            for (final String alias : instance.getAliases()) {
+                this.commands.putIfAbsent(alias.toLowerCase(Locale.ROOT), instance);
+            }
+        }
+
+        int maxLength = 0;
+        for (final String label : this.commands.keySet()) {
+            maxLength = Math.max(maxLength, label.length());
+        }
+        final List<List<String>> grouped = new ArrayList<>(maxLength + 1);
+        for (int i = 0; i <= maxLength; i++) {
+            grouped.add(new ArrayList<>());
+        }
+        this.commands.keySet().forEach(label -> grouped.get(label.length()).add(label));
+
+        this.labelsByLength = new String[maxLength + 1][];
+        for (int i = 0; i <= maxLength; i++) {
+            this.labelsByLength[i] = grouped.get(i).toArray(new String[0]);
+        }
+        this.similarLabels = new SimilarLabels(this.commands.keySet());
+
+        this.sortedLabels = this.commands.keySet().toArray(new String[0]);
+        Arrays.sort(this.sortedLabels);
+        this.permissionIndices = new int[this.sortedLabels.length];
+        final Map<String, Integer> indices = new HashMap<>();
+        final List<CommandInstance> permissions = new ArrayList<>();
+        for (int i = 0; i < this.sortedLabels.length; i++) {
+            final CommandInstance command = this.commands.get(this.sortedLabels[i]);
+            if (command.getPermission().isEmpty()) {
+                this.permissionIndices[i] = -1;
+                continue;
+            }
+            this.permissionIndices[i] = indices.computeIfAbsent(command.getPermission(), permission -> {
+                permissions.add(command);
+                return permissions.size() - 1;
+            });
+        }
+        this.permissions = permissions.toArray(new CommandInstance[0]);
+    }
+
+    /**
+     * Gets the command with given {@code label}
+     *
+     * @param label The label or alias, case insensitive
+     *
+     * @return The command or {@code null} if not found
+     */
+    public CommandInstance get(final String label) {
+        return this.get(label, 0);
+    }
+
+    /**
+     * Gets the command with the label, which starts at index {@code from} of given {@code label}.
+     * Neither the substring nor the lower cased label is created, so that the lookup doesn't
+     * allocate anything.
+     *
+     * @param label The label or alias, case insensitive
+     * @param from  The index of the first character of the label
+     *
+     * @return The command or {@code null} if not found
+     */
+    public CommandInstance get(final String label, final int from) {
+        if (label == null)
+            return null;
+        if (from == 0) {
+            // most labels are already written in lower case
+            final CommandInstance command = this.commands.get(label);
+            if (command != null)
+                return command;
+        }
+
+        final int length = label.length() - from;
+        if (length <= 0 || length >= this.labelsByLength.length)
+            return null;
+        for (final String candidate : this.labelsByLength[length]) {
+            if (label.regionMatches(true, from, candidate, 0, length))
+                return this.commands.get(candidate);
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the first argument of given {@code commandLine} is a label or alias
+     * of this index. A leading {@code /} is ignored and the first argument ends at the first
+     * {@code ' '} or {@code '"'}, just like in {@link dev.volix.lib.brigadier.parameter.ParameterSet#retrieveArguments(String)}.
+     * This method neither parses the line nor allocates any object.
+     *
+     * @param commandLine The command line, e.g. {@code /ban Superioz}
+     *
+     * @return The result. {@code true} if the first argument is known.
+     */
+    public boolean matchesFirstArgument(final String commandLine) {
+        if (commandLine == null)
+            return false;
+
+        final int start = commandLine.startsWith("/") ? 1 : 0;
+        int end = start;
+        while (end < commandLine.length()) {
+            final char c = commandLine.charAt(end);
+            if (c == ' ' || c == '"')
+                break;
+            end++;
+        }
+
+        final int length = end - start;
+        if (length == 0 || length >= this.labelsByLength.length)
+            return false;
+        for (final String label : this.labelsByLength[length]) {
+            if (commandLine.regionMatches(true, start, label, 0, length))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the labels and aliases, which are similar to the label starting at index
+     * {@code from} of given {@code label}, e.g. to suggest them after a typo.
+     * If nothing is found, nothing is allocated.
+     *
+     * @param label       The misspelled label, case insensitive
+     * @param from        The index of the first character of the label
+     * @param maxDistance The maximum amount of inserted, deleted or replaced characters,
+     *                    at most {@link #MAX_SIMILARITY_DISTANCE}
+     * @param limit       The maximum amount of labels
+     *
+     * @return The lower cased labels, the most similar first. Empty if none found
+     */
+    public List<String> findSimilar(final String label, final int from, final int maxDistance, final int limit) {
+        if (label == null)
+            return Collections.emptyList();
+        return this.similarLabels.find(label, from, maxDistance, limit);
+    }
+
+    /**
+     * Completes the labels and aliases starting with the prefix of given {@code sink} (case insensitive),
+     * which belong to a command without permission or to a {@code permitted} one.
+     *
+     * @param permitted Checks the permission of a command, called once per distinct permission.
+     *                  Can be {@code null} to complete every label
+     * @param sink      The sink collecting the labels, can't be {@code null}
+     */
+    public void complete(final Predicate<CommandInstance> permitted, final SuggestionSink sink) {
+        if(sink == null)
+            throw new NullPointerException("sink can't be null");
+        if (this.sortedLabels.length == 0)
+            return;
+
+        this.complete(permitted == null || this.permissions.length == 0 ? this.sortedLabels : this.getPermittedLabels(permitted), sink);
+    }
+
+    /**
+     * Completes the labels and aliases starting with the prefix of given {@code sink} (case insensitive),
+     * which belong to a command the sources of given {@code view} are allowed to see.
+     * The permitted labels are filtered once per view, afterwards completing doesn't check any permission.
+     *
+     * @param view The permission view of the source, can't be {@code null}
+     * @param sink The sink collecting the labels, can't be {@code null}
+     */
+    public void complete(final PermissionView view, final SuggestionSink sink) {
+        if(view == null)
+            throw new NullPointerException("view can't be null");
+        if(sink == null)
+            throw new NullPointerException("sink can't be null");
+        if (this.sortedLabels.length == 0)
+            return;
+
+        if (this.permissions.length == 0) {
+            this.complete(this.sortedLabels, sink);
+            return;
+        }
+
+        String[] labels = this.viewLabels.get(view);
+        if (labels == null) {
+            labels = this.filterLabels(index -> view.isPermitted(this.permissions[index]));
+            this.viewLabels.put(view, labels);
+        }
+        this.complete(labels, sink);
+    }
+
+    private void complete(final String[] labels, final SuggestionSink sink) {
+        final String prefix = sink.getPrefix().toLowerCase(Locale.ROOT);
+        int i = Arrays.binarySearch(labels, prefix);
+        if (i < 0) i = -i - 1;
+        while (i < labels.length && labels[i].startsWith(prefix) && sink.addMatched(labels[i])) {
+            i++;
+        }
+    }
+
+    /**
+     * Gets the labels a source with given permissions is allowed to see.
+     *
+     * @return The permitted labels in alphabetical order
+     */
+    private String[] getPermittedLabels(final Predicate<CommandInstance> permitted) {
+        final BitSet fingerprint = new BitSet(this.permissions.length);
+        for (int i = 0; i < this.permissions.length; i++) {
+            if (permitted.test(this.permissions[i]))
+                fingerprint.set(i);
+        }
+
+        final String[] cached = this.permittedLabels.get(fingerprint);
+        if (cached != null)
+            return cached;
+
+        if (this.permittedLabels.size() >= MAX_FINGERPRINTS) {
+            // unusually many combinations of permissions, start over instead of growing unbounded
+            this.permittedLabels.clear();
+        }
+        final String[] permittedLabels = this.filterLabels(fingerprint::get);
+        this.permittedLabels.put(fingerprint, permittedLabels);
+        return permittedLabels;
+    }
+
+    /**
+     * Filters the {@link #sortedLabels} of commands without permission or with a permitted one.
+     *
+     * @param permitted Checks the permission at the given index of {@link #permissions}
+     *
+     * @return The permitted labels in alphabetical order
+     */
+    private String[] filterLabels(final IntPredicate permitted) {
+        final List<String> labels = new ArrayList<>();
+        for (int i = 0; i < this.sortedLabels.length; i++) {
+            if (this.permissionIndices[i] < 0 || permitted.test(this.permissionIndices[i]))
+                labels.add(this.sortedLabels[i]);
+        }
+        return labels.toArray(new String[0]);
+    }
+
+    /**
+     * @return The version of the commands this index has been built from
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return The amount of labels and aliases
+     */
+    public int size() {
+        return this.commands.size();
+    }
+
+}
@@ -0,0 +1,172 @@
+package dev.volix.lib.brigadier.command;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+/**
+ * Lock free token bucket per command source, which allows {@link #permits} executions
+ * per {@link #periodNanos} with bursts of up to {@link #permits} executions.
+ * <p>
+ * Every bucket only consists of one {@link AtomicLong}, the point in time at which the bucket
+ * will be full again (generic cell rate algorithm). A bucket which is full again doesn't
+ * differ from a new one, so idle buckets are evicted every second with the next acquisition,
+ * which drops the references to sources that are gone. The amount of tracked sources is bounded
+ * by {@link #maxSources}, further sources share one overflow bucket until buckets become idle,
+ * so that a flood of distinct sources is limited as a whole instead of bypassing the limiter.
+ *
+ * @author Tobias Büser
+ * @see Command#rateLimit()
+ */
+public class RateLimiter {
+
+    /**
+     * Default maximum amount of sources tracked at once
+     */
+    public static final int DEFAULT_MAX_SOURCES = 10000;
+
+    /**
+     * The time between two evictions of idle buckets
+     */
+    private static final long EVICTION_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The value of an evicted bucket, which mustn't be used anymore
+     */
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    /**
+     * The key used for {@code null} sources (e.g. the console in some environments)
+     */
+    private static final Object NULL_SOURCE = new Object();
+
+    @Getter private final int permits;
+    @Getter private final long periodNanos;
+    @Getter private final int maxSources;
+
+    /**
+     * The time between two permits
+     */
+    private final long emissionInterval;
+
+    /**
+     * How far the bucket can be ahead of time, which allows the burst
+     */
+    private final long tolerance;
+
+    private final Map<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * The bucket shared by every source, which can't be tracked as the {@link #maxSources} are reached
+     */
+    private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(final int permits, final long period, final TimeUnit unit, final int maxSources) {
+        if(permits <= 0)
+            throw new IllegalArgumentException(String.format("permits have to be positive, you supplied %s", permits));
+        if(period <= 0)
+            throw new IllegalArgumentException(String.format("period has to be positive, you supplied %s", period));
+        if(maxSources <= 0)
+            throw new IllegalArgumentException(String.format("maxSources have to be positive, you supplied %s", maxSources));
+
+        this.permits = permits;
+        this.periodNanos = unit.toNanos(period);
+        this.maxSources = maxSources;
+        this.emissionInterval = Math.max(1, this.periodNanos / permits);
+        this.tolerance = this.periodNanos - this.emissionInterval;
+    }
+
+    public RateLimiter(final int permits, final long period, final TimeUnit unit) {
+        this(permits, period, unit, DEFAULT_MAX_SOURCES);
+    }
+
+    /**
+     * Tries to take one permit for given {@code commandSource}.
+     *
+     * @param commandSource The source, can be {@code null}
+     *
+     * @return The result. {@code true} if the source is allowed to execute.
+     */
+    public boolean tryAcquire(final Object commandSource) {
+        final long now = System.nanoTime();
+        if (now - this.lastEviction.get() >= EVICTION_INTERVAL) {
+            this.evictIdle(now);
+        }
+
+        final Object key = commandSource == null ? NULL_SOURCE : commandSource;
+        while (true) {
+            AtomicLong bucket = this.buckets.get(key);
+            if (bucket == null) {
+                if (this.buckets.size() >= this.maxSources && now - this.lastEviction.get() >= this.emissionInterval) {
+                    this.evictIdle(now);
+                }
+                // if there are still too many active sources, we can't track
+                // another one without growing unbounded
+                if (this.buckets.size() >= this.maxSources)
+                    return this.acquire(this.overflow, now) > 0;
+                bucket = this.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+
+            final int acquired = this.acquire(bucket, now);
+            if (acquired >= 0)
+                return acquired > 0;
+
+            // the bucket has been evicted meanwhile, so it doesn't count anymore
+            this.buckets.remove(key, bucket);
+        }
+    }
+
+    /**
+     * @return The amount of sources currently tracked
+     */
+    public int getTrackedSources() {
+        return this.buckets.size();
+    }
+
+    /**
+     * Tries to take one permit of given {@code bucket}.
+     *
+     * @return {@code 1} if a permit has been taken, {@code 0} if not and {@code -1} if the bucket has been evicted
+     */
+    private int acquire(final AtomicLong bucket, final long now) {
+        while (true) {
+            final long full = bucket.get();
+            if (full == EVICTED)
+                return -1;
+
+            final long start = full - now < 0 ? now : full;
+            if (start - now > this.tolerance)
+                return 0;
+            if (bucket.compareAndSet(full, start + this.emissionInterval))
+                return 1;
+        }
+    }
+
+    /**
+     * Removes every bucket, which is full again. A bucket is marked as evicted before
+     * it is removed, so that a concurrent acquisition can't take a permit of it anymore.
+     *
+     * @param now The current {@link System#nanoTime()}
+     */
+    private void evictIdle(final long now) {
+        if (!this.evicting.compareAndSet(false, true))
+            return;
+
+        try {
+            this.buckets.entrySet().removeIf(entry -> {
+                final long full = entry.getValue().get();
+                return full - now <= 0 && entry.getValue().compareAndSet(full, EVICTED);
+            });
+            this.lastEviction.set(now);
+        } finally {
+            this.evicting.set(false);
+        }
+    }
+
+}
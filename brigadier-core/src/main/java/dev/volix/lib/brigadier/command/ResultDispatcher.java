@@ -0,0 +1,165 @@
+package dev.volix.lib.brigadier.command;
+
+import dev.volix.lib.brigadier.BrigadierAdapter;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Delivers the results of executions to the asynchronous {@link ResultHandler} methods
+ * ({@link ResultHandler#async()}) with {@link BrigadierAdapter#runAsync(Runnable)}.
+ * <p>
+ * Every source has its own lane, so that the results of one source are delivered in the
+ * order the commands have been executed, while the lanes of different sources are delivered
+ * independently. A result is only delivered after the future of its execution completed, so
+ * an asynchronous command delays the results of its source executed afterwards, but not the
+ * results of other sources. Idle lanes are removed right away.
+ *
+ * @author Tobias Büser
+ */
+public class ResultDispatcher {
+
+    /**
+     * The key used for {@code null} sources
+     */
+    private static final Object NULL_SOURCE = new Object();
+
+    private final Supplier<? extends BrigadierAdapter<?>> adapter;
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * The amount of results, which haven't been delivered yet
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * @param adapter Supplies the adapter running the deliveries, can't be {@code null}
+     */
+    public ResultDispatcher(final Supplier<? extends BrigadierAdapter<?>> adapter) {
+        if(adapter == null)
+            throw new NullPointerException("adapter can't be null");
+
+        this.adapter = adapter;
+    }
+
+    /**
+     * Enqueues the delivery of a result into the lane of given {@code commandSource}.
+     *
+     * @param commandSource The source of the execution, can be {@code null}
+     * @param future        The future of the execution, the delivery waits until it completed.
+     *                      {@code null} if the execution didn't pass
+     * @param delivery      Invokes the asynchronous result handlers
+     */
+    public void dispatch(final Object commandSource, final CompletableFuture<?> future, final Runnable delivery) {
+        if(delivery == null)
+            throw new NullPointerException("delivery can't be null");
+
+        final Object key = commandSource == null ? NULL_SOURCE : commandSource;
+        final Delivery entry = new Delivery(future, delivery);
+        this.pending.incrementAndGet();
+
+        // the lane is looked up and filled atomically, so that it can't be removed in between
+        final Lane lane = this.lanes.compute(key, (source, existing) -> {
+            final Lane target = existing == null ? new Lane(source) : existing;
+            synchronized (target) {
+                target.deliveries.add(entry);
+            }
+            return target;
+        });
+
+        if (future == null || future.isDone()) {
+            lane.schedule();
+        } else {
+            future.whenComplete((result, throwable) -> lane.schedule());
+        }
+    }
+
+    /**
+     * @return The amount of results, which haven't been delivered yet
+     */
+    public int getPending() {
+        return this.pending.get();
+    }
+
+    /**
+     * The deliveries of one source in order of their executions.
+     */
+    private final class Lane implements Runnable {
+
+        private final Object source;
+        private final ArrayDeque<Delivery> deliveries = new ArrayDeque<>();
+
+        /**
+         * Whether a thread is delivering the results of this lane right now
+         */
+        private boolean running;
+
+        private Lane(final Object source) {
+            this.source = source;
+        }
+
+        /**
+         * Starts delivering, if the oldest result is ready and nobody delivers yet.
+         */
+        private void schedule() {
+            synchronized (this) {
+                if (this.running || !this.isReady())
+                    return;
+                this.running = true;
+            }
+            ResultDispatcher.this.adapter.get().runAsync(this);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final Delivery delivery;
+                synchronized (this) {
+                    if (!this.isReady()) {
+                        // the completion of the oldest future schedules this lane again
+                        this.running = false;
+                        break;
+                    }
+                    delivery = this.deliveries.poll();
+                }
+
+                try {
+                    delivery.runnable.run();
+                } catch (final Throwable throwable) {
+                    // one failing handler mustn't stall the results of this source
+                    throwable.printStackTrace();
+                } finally {
+                    ResultDispatcher.this.pending.decrementAndGet();
+                }
+            }
+
+            ResultDispatcher.this.lanes.computeIfPresent(this.source, (source, lane) -> {
+                synchronized (lane) {
+                    return lane == this && lane.deliveries.isEmpty() && !lane.running ? null : lane;
+                }
+            });
+        }
+
+        private boolean isReady() {
+            final Delivery oldest = this.deliveries.peek();
+            return oldest != null && (oldest.future == null || oldest.future.isDone());
+        }
+
+    }
+
+    private static final class Delivery {
+
+        private final CompletableFuture<?> future;
+        private final Runnable runnable;
+
+        private Delivery(final CompletableFuture<?> future, final Runnable runnable) {
+            this.future = future;
+            this.runnable = runnable;
+        }
+
+    }
+
+}
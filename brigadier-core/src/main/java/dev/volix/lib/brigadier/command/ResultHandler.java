@@ -7,6 +7,10 @@ import java.lang.annotation.Target;
 
 /**
  * Annotation for {@link ExecutionResult} handler methods.
+ * <p>
+ * By default the handler is invoked right after the execution on the executing thread.
+ * Asynchronous handlers are invoked with {@link dev.volix.lib.brigadier.BrigadierAdapter#runAsync(Runnable)}
+ * as soon as the future of the result completed, in order of the executions of each source.
  *
  * @author Tobias Büser
  */
@@ -14,4 +18,14 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 public @interface ResultHandler {
 
+    /**
+     * Whether the handler is invoked off the executing thread, so that e.g. sending
+     * messages or writing metrics doesn't delay the main thread.
+     *
+     * @return The result. {@code true} if the handler is invoked asynchronously
+     *
+     * @see ResultDispatcher
+     */
+    boolean async() default false;
+
 }
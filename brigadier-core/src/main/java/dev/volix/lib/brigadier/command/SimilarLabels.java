@@ -0,0 +1,270 @@
+package dev.volix.lib.brigadier.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable index of lower cased labels, which finds the labels within a small (Levenshtein)
+ * edit distance of a misspelled label without comparing it with every label.
+ * <p>
+ * Two strings within distance {@code d} can always be reduced to the same string by deleting
+ * at most {@code d} characters of each of them. So the index stores the hashes of every label
+ * with up to {@link #MAX_DISTANCE} deleted characters, and a lookup only has to hash the deletions
+ * of the misspelled label. The few labels sharing a hash are then verified with the actual distance.
+ * Neither the deletions nor their hashes are stored as objects, so a lookup doesn't allocate
+ * anything unless a label is found.
+ *
+ * @author Tobias Büser
+ */
+final class SimilarLabels {
+
+    /**
+     * The maximum distance the index can be searched with
+     */
+    static final int MAX_DISTANCE = 2;
+
+    /**
+     * The reusable rows of the distance computation of every thread
+     */
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][32]);
+
+    private final String[] labels;
+
+    /**
+     * The length of the longest label, longer lookups can be dismissed right away
+     */
+    private final int maxLength;
+
+    /**
+     * Open addressing table of the deletion hashes, where {@link #heads} contains the
+     * first entry of the hash at the same index ({@code -1} if the slot is free)
+     */
+    private final int[] hashes;
+    private final int[] heads;
+
+    /**
+     * The entries as linked lists of label indices per hash
+     */
+    private final int[] next;
+    private final int[] entries;
+    private int size;
+
+    SimilarLabels(final Collection<String> labels) {
+        this.labels = labels.toArray(new String[0]);
+
+        int maxLength = 0;
+        int capacity = 0;
+        for (final String label : this.labels) {
+            maxLength = Math.max(maxLength, label.length());
+            capacity += variants(label.length());
+        }
+        this.maxLength = maxLength;
+
+        int slots = 16;
+        while (slots < capacity * 2) {
+            slots <<= 1;
+        }
+        this.hashes = new int[slots];
+        this.heads = new int[slots];
+        Arrays.fill(this.heads, -1);
+        this.next = new int[capacity];
+        this.entries = new int[capacity];
+
+        for (int i = 0; i < this.labels.length; i++) {
+            final String label = this.labels[i];
+            final int length = label.length();
+            this.add(hash(label, 0, length, -1, -1), i);
+            for (int a = 0; a < length; a++) {
+                this.add(hash(label, 0, length, a, -1), i);
+                for (int b = a + 1; b < length; b++) {
+                    this.add(hash(label, 0, length, a, b), i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the labels within {@code maxDistance} of the label, which starts at index
+     * {@code from} of given {@code label}.
+     *
+     * @param label       The misspelled label, case insensitive
+     * @param from        The index of the first character of the label
+     * @param maxDistance The maximum edit distance, at most {@link #MAX_DISTANCE}
+     * @param limit       The maximum amount of labels
+     *
+     * @return The labels ordered by their distance and then alphabetically, empty if none found
+     */
+    List<String> find(final String label, final int from, final int maxDistance, final int limit) {
+        final int distance = Math.min(maxDistance, MAX_DISTANCE);
+        final int length = label.length() - from;
+        if (this.labels.length == 0 || length <= 0 || limit <= 0 || length > this.maxLength + distance)
+            return Collections.emptyList();
+
+        List<Match> matches = this.lookup(label, from, hash(label, from, length, -1, -1), distance, null);
+        if (distance >= 1) {
+            for (int a = 0; a < length; a++) {
+                matches = this.lookup(label, from, hash(label, from, length, a, -1), distance, matches);
+                if (distance < 2)
+                    continue;
+                for (int b = a + 1; b < length; b++) {
+                    matches = this.lookup(label, from, hash(label, from, length, a, b), distance, matches);
+                }
+            }
+        }
+        if (matches == null)
+            return Collections.emptyList();
+
+        Collections.sort(matches);
+        final List<String> labels = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            labels.add(matches.get(i).label);
+        }
+        return labels;
+    }
+
+    /**
+     * Verifies every label sharing given {@code hash} and adds the ones within {@code maxDistance}.
+     */
+    private List<Match> lookup(final String label, final int from, final int hash, final int maxDistance, List<Match> matches) {
+        for (int entry = this.head(hash); entry >= 0; entry = this.next[entry]) {
+            final String candidate = this.labels[this.entries[entry]];
+            if (matches != null && contains(matches, candidate))
+                continue;
+
+            final int distance = distance(label, from, label.length(), candidate, maxDistance);
+            if (distance > maxDistance)
+                continue;
+            if (matches == null)
+                matches = new ArrayList<>();
+            matches.add(new Match(candidate, distance));
+        }
+        return matches;
+    }
+
+    private int head(final int hash) {
+        final int mask = this.heads.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            if (this.heads[slot] < 0)
+                return -1;
+            if (this.hashes[slot] == hash)
+                return this.heads[slot];
+        }
+    }
+
+    private void add(final int hash, final int label) {
+        final int mask = this.heads.length - 1;
+        int slot = mix(hash) & mask;
+        while (this.heads[slot] >= 0 && this.hashes[slot] != hash) {
+            slot = (slot + 1) & mask;
+        }
+
+        // the same deletion can occur multiple times (e.g. "aab" without either "a")
+        for (int entry = this.heads[slot]; entry >= 0; entry = this.next[entry]) {
+            if (this.entries[entry] == label)
+                return;
+        }
+        this.hashes[slot] = hash;
+        this.entries[this.size] = label;
+        this.next[this.size] = this.heads[slot];
+        this.heads[slot] = this.size++;
+    }
+
+    /**
+     * @return The amount of strings, which can be created by deleting up to {@link #MAX_DISTANCE} characters
+     */
+    private static int variants(final int length) {
+        return 1 + length + length * (length - 1) / 2;
+    }
+
+    /**
+     * Hashes the lower cased region {@code from}-{@code from + length} of {@code string}
+     * without the characters at the relative indices {@code skipA} and {@code skipB}.
+     */
+    private static int hash(final String string, final int from, final int length, final int skipA, final int skipB) {
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            if (i == skipA || i == skipB)
+                continue;
+            hash = 31 * hash + Character.toLowerCase(string.charAt(from + i));
+        }
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    private static boolean contains(final List<Match> matches, final String label) {
+        for (int i = 0; i < matches.size(); i++) {
+            if (matches.get(i).label.equals(label))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Computes the case insensitive Levenshtein distance between the region {@code from}-{@code to}
+     * of {@code a} and the lower cased {@code b} with two reusable rows. The computation stops
+     * as soon as the distance exceeds {@code cutoff}.
+     *
+     * @return The distance or any value greater than {@code cutoff}
+     */
+    private static int distance(final String a, final int from, final int to, final String b, final int cutoff) {
+        final int length = b.length();
+        if (Math.abs(length - (to - from)) > cutoff)
+            return cutoff + 1;
+
+        int[][] rows = ROWS.get();
+        if (rows[0].length <= length) {
+            rows = new int[2][length + 1];
+            ROWS.set(rows);
+        }
+
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        for (int j = 0; j <= length; j++) {
+            previous[j] = j;
+        }
+        for (int i = from; i < to; i++) {
+            final char c = Character.toLowerCase(a.charAt(i));
+            current[0] = i - from + 1;
+            int minimum = current[0];
+            for (int j = 1; j <= length; j++) {
+                final int cost = c == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                minimum = Math.min(minimum, current[j]);
+            }
+            if (minimum > cutoff)
+                return cutoff + 1;
+
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[length];
+    }
+
+    private static final class Match implements Comparable<Match> {
+
+        private final String label;
+        private final int distance;
+
+        private Match(final String label, final int distance) {
+            this.label = label;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(final Match other) {
+            return this.distance != other.distance ? Integer.compare(this.distance, other.distance) : this.label.compareTo(other.label);
+        }
+
+    }
+
+}
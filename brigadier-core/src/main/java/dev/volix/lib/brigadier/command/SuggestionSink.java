@@ -0,0 +1,114 @@
+package dev.volix.lib.brigadier.command;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import lombok.Getter;
+
+/**
+ * Bounded collector of the suggestions of one tab completion, which {@link TabCompletor}
+ * methods can push their suggestions into instead of returning a whole list:
+ * <pre>
+ * &#64;TabCompletor
+ * public void completeNames(CommandSender sender, int index, SuggestionSink sink) {
+ *     for (String name : this.offlineNames.tailSet(sink.getPrefix())) {
+ *         if (!sink.add(name)) break;
+ *     }
+ * }
+ * </pre>
+ * Suggestions not starting with the {@link #prefix} are filtered right away and suggestions, which
+ * have already been added (e.g. a sub command also listed by a tab completion method), are ignored. As soon as the
+ * {@link #limit} is reached or the request has been cancelled, the sink is {@link #isFull() full},
+ * every further suggestion is ignored and the producer should stop.
+ *
+ * @author Tobias Büser
+ */
+public class SuggestionSink {
+
+    /**
+     * The argument typed so far, every suggestion has to start with it. Empty if nothing has been typed yet
+     */
+    @Getter private final String prefix;
+
+    /**
+     * The maximum amount of suggestions
+     */
+    @Getter private final int limit;
+
+    private final BooleanSupplier cancelled;
+    private final List<String> suggestions = new ArrayList<>();
+    private final Set<String> added = new HashSet<>();
+
+    /**
+     * @param prefix    The argument typed so far, can't be {@code null}
+     * @param limit     The maximum amount of suggestions, can't be negative
+     * @param cancelled Whether the request has been cancelled, can be {@code null}
+     */
+    public SuggestionSink(final String prefix, final int limit, final BooleanSupplier cancelled) {
+        if(prefix == null)
+            throw new NullPointerException("prefix can't be null");
+        if(limit < 0)
+            throw new IllegalArgumentException(String.format("limit can't be negative, you supplied %s", limit));
+
+        this.prefix = prefix;
+        this.limit = limit;
+        this.cancelled = cancelled;
+    }
+
+    public SuggestionSink(final String prefix, final int limit) {
+        this(prefix, limit, null);
+    }
+
+    /**
+     * Adds given {@code suggestion}, if it starts with the {@link #prefix}.
+     *
+     * @param suggestion The suggestion, ignored if {@code null} or already added
+     *
+     * @return Whether further suggestions are accepted, {@code false} if the producer should stop
+     */
+    public boolean add(final String suggestion) {
+        if (suggestion != null && suggestion.startsWith(this.prefix))
+            return this.addMatched(suggestion);
+        return !this.isFull();
+    }
+
+    /**
+     * Adds given {@code suggestion} without comparing it with the {@link #prefix}, for producers
+     * which matched it themselves (e.g. case insensitively).
+     *
+     * @param suggestion The suggestion, ignored if {@code null} or already added
+     *
+     * @return Whether further suggestions are accepted, {@code false} if the producer should stop
+     */
+    public boolean addMatched(final String suggestion) {
+        if (this.isFull())
+            return false;
+        if (suggestion != null && this.added.add(suggestion))
+            this.suggestions.add(suggestion);
+        return !this.isFull();
+    }
+
+    /**
+     * @return Whether the limit is reached or the request has been cancelled
+     */
+    public boolean isFull() {
+        return this.suggestions.size() >= this.limit || (this.cancelled != null && this.cancelled.getAsBoolean());
+    }
+
+    /**
+     * @return The amount of suggestions, which can still be added
+     */
+    public int getRemaining() {
+        return Math.max(0, this.limit - this.suggestions.size());
+    }
+
+    /**
+     * @return The collected suggestions in the order they have been added, modifiable
+     */
+    public List<String> getSuggestions() {
+        return this.suggestions;
+    }
+
+}
@@ -0,0 +1,332 @@
+package dev.volix.lib.brigadier.command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+/**
+ * Coalesces the tab completion requests of every command source, so that only
+ * the latest request of a source is computed (latest wins).
+ * <p>
+ * Every request takes a {@link Ticket}. As soon as a newer request of the same source
+ * takes another ticket, the older one is superseded: its computation stops before the
+ * next {@link TabCompletor} method would be invoked and its result is dropped.
+ * Additionally a minimum interval between two computed requests of a source can be
+ * configured. A request within this interval is never dropped: an asynchronous request
+ * is {@link Ticket#defer(Runnable, Runnable) deferred} until the interval elapsed, so that only
+ * the trailing request of a burst is computed, and a synchronous request is handled by the {@link DropPolicy}.
+ * Deferred requests don't occupy a thread while they wait, there is a single pending request per source
+ * and one timer thread starts the pending requests of every source once their slot has come.
+ *
+ * @author Tobias Büser
+ * @see dev.volix.lib.brigadier.Brigadier#setTabCompletionThrottle(TabCompletionThrottle)
+ */
+public class TabCompletionThrottle {
+
+    /**
+     * After this amount of requests, idle sources are evicted
+     */
+    private static final int EVICTION_INTERVAL = 256;
+
+    /**
+     * Sources without requests for this time are evicted
+     */
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * The key used for {@code null} sources
+     */
+    private static final Object NULL_SOURCE = new Object();
+
+    @Getter private final long minIntervalNanos;
+    @Getter private final DropPolicy dropPolicy;
+
+    private final Map<Object, SourceState> states = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    public TabCompletionThrottle(final long minInterval, final TimeUnit unit, final DropPolicy dropPolicy) {
+        if(minInterval < 0)
+            throw new IllegalArgumentException(String.format("minInterval can't be negative, you supplied %s", minInterval));
+        if(dropPolicy == null)
+            throw new NullPointerException("dropPolicy can't be null");
+
+        this.minIntervalNanos = unit.toNanos(minInterval);
+        this.dropPolicy = dropPolicy;
+    }
+
+    /**
+     * Creates a throttle without minimum interval, so that only
+     * the latest request of a source wins.
+     */
+    public TabCompletionThrottle() {
+        this(0, TimeUnit.MILLISECONDS, DropPolicy.COMPUTE);
+    }
+
+    /**
+     * Starts a new request of given {@code commandSource} and supersedes
+     * every request of this source still in progress.
+     *
+     * @param commandSource The source, can be {@code null}
+     *
+     * @return The ticket of the request
+     */
+    public Ticket begin(final Object commandSource) {
+        final long now = System.nanoTime();
+        if ((this.requests.incrementAndGet() & (EVICTION_INTERVAL - 1)) == 0) {
+            this.states.values().removeIf(state -> now - state.slot > Math.max(IDLE_NANOS, this.minIntervalNanos));
+        }
+
+        final SourceState state = this.states.computeIfAbsent(commandSource == null ? NULL_SOURCE : commandSource,
+            source -> new SourceState(now - this.minIntervalNanos));
+        synchronized (state) {
+            // a request still waiting for its slot is superseded and this one takes its slot,
+            // otherwise the next slot starts as soon as the interval after the last one elapsed
+            final long slot = state.slot - now > 0 ? state.slot : Math.max(now, state.slot + this.minIntervalNanos);
+            state.slot = slot;
+            return new Ticket(this, state, state.generation.incrementAndGet(), slot, slot - now > 0);
+        }
+    }
+
+    /**
+     * What happens with synchronous requests within the minimum interval, which
+     * can't wait for the interval to elapse without blocking the caller
+     */
+    public enum DropPolicy {
+
+        /**
+         * The request is computed right away
+         */
+        COMPUTE,
+
+        /**
+         * The last computed suggestions of the source are returned, if they have been computed
+         * for the same command and argument and the argument has only been continued since,
+         * filtered by the argument currently being written. Otherwise the request is computed.
+         */
+        LAST_RESULT
+
+    }
+
+    /**
+     * One tab completion request of a source.
+     */
+    public static final class Ticket {
+
+        private final TabCompletionThrottle throttle;
+        private final SourceState state;
+        private final long generation;
+
+        /**
+         * The time this request may be computed at, according to {@link System#nanoTime()}
+         */
+        private final long slot;
+
+        /**
+         * Whether the request has been started within the minimum interval
+         */
+        @Getter private final boolean throttled;
+
+        private Ticket(final TabCompletionThrottle throttle, final SourceState state, final long generation,
+                       final long slot, final boolean throttled) {
+            this.throttle = throttle;
+            this.state = state;
+            this.generation = generation;
+            this.slot = slot;
+            this.throttled = throttled;
+        }
+
+        /**
+         * @return The result. {@code true} if a newer request of the same source has been started.
+         */
+        public boolean isSuperseded() {
+            return this.state.generation.get() != this.generation;
+        }
+
+        /**
+         * Runs given {@code start} as soon as the minimum interval after the last computed request
+         * of the source elapsed, right away if this request hasn't been throttled. A source has at most
+         * one deferred request: a newer one replaces it and the replaced request is dropped right away.
+         *
+         * @param start   Starts the computation of this request, e.g. by passing it to an executor
+         * @param dropped Called instead of {@code start}, if the request has been superseded before its slot came
+         */
+        public void defer(final Runnable start, final Runnable dropped) {
+            if(start == null)
+                throw new NullPointerException("start can't be null");
+            if(dropped == null)
+                throw new NullPointerException("dropped can't be null");
+
+            if (!this.throttled) {
+                start.run();
+                return;
+            }
+
+            final Deferred replaced;
+            synchronized (this.state) {
+                replaced = this.state.deferred;
+                this.state.deferred = new Deferred(this, start, dropped);
+                if (!this.state.scheduled) {
+                    // every deferred request of a burst shares the same slot, so one timer task serves them all
+                    this.state.scheduled = true;
+                    final SourceState state = this.state;
+                    Timer.EXECUTOR.schedule(() -> startDeferred(state), this.slot - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+            }
+            if (replaced != null)
+                replaced.dropped.run();
+        }
+
+        /**
+         * Gets the last computed suggestions of the source, if the {@link DropPolicy#LAST_RESULT}
+         * applies to this request.
+         *
+         * @param command The command whose argument is completed
+         * @param index   The index of the argument
+         * @param prefix  The argument written so far, the suggestions are filtered with
+         *
+         * @return The suggestions or {@code null} if the request has to be computed
+         */
+        public List<String> reuse(final CommandInstance command, final int index, final String prefix) {
+            if (!this.throttled || this.throttle.dropPolicy != DropPolicy.LAST_RESULT)
+                return null;
+
+            final Result last = this.state.lastResult;
+            if (last == null || last.capped || last.command != command || last.index != index || !prefix.startsWith(last.prefix))
+                return null;
+
+            final List<String> suggestions = new ArrayList<>(last.suggestions.size());
+            for (final String suggestion : last.suggestions) {
+                if (suggestion.startsWith(prefix))
+                    suggestions.add(suggestion);
+            }
+            return suggestions;
+        }
+
+        /**
+         * Finishes the request with given {@code suggestions}.
+         *
+         * @param suggestions The computed suggestions
+         * @param command     The command whose argument has been completed
+         * @param index       The index of the argument
+         * @param prefix      The argument written so far, the suggestions have been filtered with
+         * @param capped      Whether the suggestions have been cut off at the limit
+         *
+         * @return The suggestions or an empty list if the request has been superseded meanwhile
+         */
+        public List<String> complete(final List<String> suggestions, final CommandInstance command, final int index,
+                                     final String prefix, final boolean capped) {
+            if (this.isSuperseded())
+                return new ArrayList<>();
+
+            this.state.lastResult = new Result(command, index, prefix, capped, new ArrayList<>(suggestions));
+            return suggestions;
+        }
+
+    }
+
+    /**
+     * Starts the deferred request of given {@code state}, called by the timer as soon as its slot came.
+     */
+    private static void startDeferred(final SourceState state) {
+        final Deferred deferred;
+        synchronized (state) {
+            deferred = state.deferred;
+            state.deferred = null;
+            state.scheduled = false;
+        }
+        if (deferred == null)
+            return;
+
+        // a synchronous request might have superseded it meanwhile
+        if (deferred.ticket.isSuperseded()) {
+            deferred.dropped.run();
+        } else {
+            deferred.start.run();
+        }
+    }
+
+    /**
+     * The state of one source.
+     */
+    private static final class SourceState {
+
+        private final AtomicLong generation = new AtomicLong();
+
+        /**
+         * The time the last request has been or will be computed at, guarded by the state
+         */
+        private volatile long slot;
+        private volatile Result lastResult;
+
+        /**
+         * The request waiting for its slot and whether the timer has been scheduled for it, guarded by the state
+         */
+        private Deferred deferred;
+        private boolean scheduled;
+
+        private SourceState(final long slot) {
+            this.slot = slot;
+        }
+
+    }
+
+    /**
+     * The last computed suggestions of a source and what they have been computed for.
+     */
+    private static final class Result {
+
+        private final CommandInstance command;
+        private final int index;
+        private final String prefix;
+        private final boolean capped;
+        private final List<String> suggestions;
+
+        private Result(final CommandInstance command, final int index, final String prefix, final boolean capped,
+                       final List<String> suggestions) {
+            this.command = command;
+            this.index = index;
+            this.prefix = prefix;
+            this.capped = capped;
+            this.suggestions = suggestions;
+        }
+
+    }
+
+    /**
+     * A request waiting for its slot.
+     */
+    private static final class Deferred {
+
+        private final Ticket ticket;
+        private final Runnable start;
+        private final Runnable dropped;
+
+        private Deferred(final Ticket ticket, final Runnable start, final Runnable dropped) {
+            this.ticket = ticket;
+            this.start = start;
+            this.dropped = dropped;
+        }
+
+    }
+
+    /**
+     * Holds the timer thread shared by every throttle, which is only started with the first deferred request.
+     */
+    private static final class Timer {
+
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "Brigadier Tab Completion Throttle");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    }
+
+}
@@ -1,9 +1,13 @@
 package dev.volix.lib.brigadier.context;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.regex.Pattern;
 import lombok.Getter;
 import dev.volix.lib.brigadier.command.Command;
@@ -25,6 +29,12 @@ public class CommandUsage {
      */
     private static final Pattern PARAM_NEEDED = Pattern.compile("<[0-9a-zA-Z_:|()-]+>");
 
+    /**
+     * The type of a parameter, which takes every remaining argument (e.g. {@code [reason:greedy]}).
+     * The arguments are not validated and can be joined with {@link dev.volix.lib.brigadier.parameter.ParameterSet#getRange(int)}.
+     */
+    public static final String GREEDY = "greedy";
+
     /**
      * Label of the command
      */
@@ -45,20 +55,77 @@ public class CommandUsage {
      */
     private final Map<String, Boolean> paramMap = new HashMap<>();
 
+    /**
+     * The names of the {@link #params} without their declared type
+     */
+    private final String[] names;
+
+    /**
+     * The lower cased types of the {@link #params}, {@code null} if no type is declared
+     */
+    private final String[] types;
+
+    /**
+     * The lower cased literal alternatives of the {@link #params} in alphabetical order
+     * (e.g. {@code on} and {@code off} for {@code <on|off>}), empty if the parameter has none
+     */
+    private final String[][] alternatives;
+
+    /**
+     * The amount of needed parameters before the first optional one
+     */
+    private final int neededSize;
+
     public CommandUsage(final String label, final String base) {
         this.label = label;
         this.base = base;
 
-        if (!USAGE_PATTERN.matcher(base).matches())
-            return;
-        for (String match : base.split(" ")) {
-            final boolean needed = PARAM_NEEDED.matcher(match).matches();
-            match = needed ? match.replaceAll("[<>]", "") : match.contains("[")
-                ? match.replaceAll("[\\[\\]]", "") : match;
+        if (USAGE_PATTERN.matcher(base).matches()) {
+            for (String match : base.split(" ")) {
+                final boolean needed = PARAM_NEEDED.matcher(match).matches();
+                match = needed ? match.replaceAll("[<>]", "") : match.contains("[")
+                    ? match.replaceAll("[\\[\\]]", "") : match;
+
+                this.params.add(match);
+                this.paramMap.put(match, needed);
+            }
+        }
 
-            this.params.add(match);
-            this.paramMap.put(match, needed);
+        // compile the grammar once, so that the dispatching only has to look it up
+        this.names = new String[this.params.size()];
+        this.types = new String[this.params.size()];
+        this.alternatives = new String[this.params.size()][];
+        int neededSize = -1;
+        for (int i = 0; i < this.params.size(); i++) {
+            final String param = this.params.get(i);
+            final int separator = param.lastIndexOf(':');
+            this.names[i] = separator < 0 ? param : param.substring(0, separator);
+            this.types[i] = separator < 0 || separator == param.length() - 1
+                ? null : param.substring(separator + 1).toLowerCase(Locale.ROOT);
+            this.alternatives[i] = this.types[i] == null ? compileAlternatives(this.names[i]) : new String[0];
+            if (neededSize < 0 && !this.paramMap.get(param))
+                neededSize = i;
+        }
+        this.neededSize = neededSize < 0 ? this.params.size() : neededSize;
+    }
+
+    /**
+     * Splits the literal alternatives of a parameter name, e.g. {@code (on|off)}.
+     *
+     * @param name The name of the parameter
+     *
+     * @return The distinct lower cased alternatives in alphabetical order, empty if there are none
+     */
+    private static String[] compileAlternatives(final String name) {
+        if (name.indexOf('|') < 0)
+            return new String[0];
+
+        final TreeSet<String> alternatives = new TreeSet<>();
+        for (final String alternative : name.replaceAll("[()]", "").split("\\|")) {
+            if (!alternative.isEmpty())
+                alternatives.add(alternative.toLowerCase(Locale.ROOT));
         }
+        return alternatives.toArray(new String[0]);
     }
 
     /**
@@ -67,13 +134,7 @@ public class CommandUsage {
      * @return The size as int
      */
     public int getNeededSize() {
-        int count = 0;
-        for (final String param : this.params) {
-            if (!this.paramMap.get(param))
-                break;
-            count++;
-        }
-        return count;
+        return this.neededSize;
     }
 
     /**
@@ -89,6 +150,60 @@ public class CommandUsage {
         return this.params.get(index);
     }
 
+    /**
+     * Get the name of the parameter at given index without its declared type,
+     * e.g. {@code target} for {@code <target:player>}.
+     *
+     * @param index The index
+     *
+     * @return The name or {@code null} if there is no parameter at given index
+     */
+    public String getName(final int index) {
+        if (index >= this.names.length || index < 0)
+            return null;
+        return this.names[index];
+    }
+
+    /**
+     * Get the declared type of the parameter at given index.
+     * The type is declared after a colon, e.g. {@code <target:player>}.
+     *
+     * @param index The index
+     *
+     * @return The lower cased type or {@code null} if no type is declared
+     */
+    public String getType(final int index) {
+        if (index >= this.types.length || index < 0)
+            return null;
+        return this.types[index];
+    }
+
+    /**
+     * Get the literal alternatives of the parameter at given index, which are declared
+     * by separating them with {@code |} (e.g. {@code <on|off>}).
+     *
+     * @param index The index
+     *
+     * @return The lower cased alternatives in alphabetical order, empty if the parameter has none
+     */
+    public List<String> getAlternatives(final int index) {
+        if (index >= this.alternatives.length || index < 0)
+            return Collections.emptyList();
+        return Collections.unmodifiableList(Arrays.asList(this.alternatives[index]));
+    }
+
+    /**
+     * Checks if the parameter at given index takes the rest of the command line
+     * ({@link #GREEDY}). Only the last parameter can be greedy.
+     *
+     * @param index The index
+     *
+     * @return The result
+     */
+    public boolean isGreedy(final int index) {
+        return index == this.types.length - 1 && GREEDY.equals(this.types[index]);
+    }
+
     /**
      * Checks if the given key is needed by checking the bool inside the paramMap
      * {@literal <}{@literal >} = needed; [] = optional
@@ -0,0 +1,248 @@
+package dev.volix.lib.brigadier.graph;
+
+import dev.volix.lib.brigadier.Brigadier;
+import dev.volix.lib.brigadier.BrigadierAdapter;
+import dev.volix.lib.brigadier.command.CommandInstance;
+import dev.volix.lib.brigadier.context.CommandUsage;
+import dev.volix.lib.brigadier.parameter.ParameterType;
+import dev.volix.lib.brigadier.permission.PermissionView;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Exports the command trees of a {@link Brigadier} instance as node graph like the one
+ * minecraft 1.13+ clients receive, so that labels, sub commands and typed parameters can
+ * be completed and validated by the client itself instead of sending a tab request
+ * for every keystroke.
+ * <p>
+ * The graph consists of a root node, literal nodes for labels and sub commands,
+ * literal nodes for aliases which redirect to the node of their label and argument nodes
+ * for the parameters of the {@link CommandUsage}. Commands a source isn't allowed to
+ * execute are not part of its graph.
+ * <p>
+ * Graphs are cached per set of permissions, so sources with the same permissions
+ * share the same graph. The cache is cleared as soon as new commands are registered.
+ *
+ * @author Tobias Büser
+ */
+public class CommandGraph {
+
+    /**
+     * The parser of parameters without a declared type
+     */
+    private static final String STRING_PARSER = "brigadier:string";
+
+    private final Brigadier brigadier;
+
+    /**
+     * The commands, their distinct permissions and the graphs exported from them, which are
+     * replaced together, so that a graph can't be built with the permissions of other commands
+     */
+    private volatile Snapshot snapshot;
+
+    public CommandGraph(final Brigadier brigadier) {
+        if(brigadier == null)
+            throw new NullPointerException("brigadier can't be null");
+
+        this.brigadier = brigadier;
+    }
+
+    /**
+     * Exports the graph of every command given {@code commandSource} is allowed to execute,
+     * according to {@link BrigadierAdapter#checkPermission(Object, CommandInstance)}.
+     * The adapter is only asked once per distinct permission, or not at all if the
+     * source has a cached {@link PermissionView}.
+     *
+     * @param commandSource The source the graph is meant for
+     * @param <S>           The type of the source
+     *
+     * @return The root node of the graph, which must not be modified
+     */
+    @SuppressWarnings("unchecked")
+    public <S> CommandNode export(final S commandSource) {
+        if(commandSource == null)
+            throw new NullPointerException("commandSource can't be null");
+
+        // read once, the permissions, their indices and the graphs have to belong to the same commands
+        final Snapshot snapshot = this.getSnapshot();
+        final BrigadierAdapter<S> adapter = this.brigadier.getInstanceAdapter();
+        final PermissionView view = this.brigadier.getPermissionViews().get(commandSource);
+        final BitSet granted = new BitSet(snapshot.permissions.length);
+        for (int i = 0; i < snapshot.permissions.length; i++) {
+            if (view != null ? view.isPermitted(snapshot.permissions[i]) : adapter.checkPermission(commandSource, snapshot.permissions[i]))
+                granted.set(i);
+        }
+
+        return snapshot.graphs.computeIfAbsent(granted, key -> this.export(snapshot, command -> {
+            final Integer index = snapshot.permissionIndices.get(command.getPermission());
+            return command.getPermission().isEmpty() || (index != null && key.get(index));
+        }));
+    }
+
+    /**
+     * Exports the graph of every command matching given {@code permitted}. The graph is not cached.
+     *
+     * @param permitted Checks if a command is part of the graph, can't be {@code null}
+     *
+     * @return The root node of the graph
+     */
+    public CommandNode export(final Predicate<CommandInstance> permitted) {
+        if(permitted == null)
+            throw new NullPointerException("permitted can't be null");
+
+        return this.export(this.getSnapshot(), permitted);
+    }
+
+    /**
+     * Clears every cached graph
+     */
+    public void invalidate() {
+        this.snapshot = null;
+    }
+
+    private CommandNode export(final Snapshot snapshot, final Predicate<CommandInstance> permitted) {
+        final CommandNode root = new CommandNode(CommandNode.Type.ROOT, "", null, false, false);
+        this.addCommands(root, snapshot.roots, permitted);
+        return root;
+    }
+
+    /**
+     * @return The snapshot of the current commands, which is taken again if they changed
+     */
+    private Snapshot getSnapshot() {
+        final List<CommandInstance> commands = this.brigadier.getCommandsUnwound();
+        Snapshot snapshot = this.snapshot;
+        if (snapshot == null || snapshot.commands != commands) {
+            this.snapshot = snapshot = new Snapshot(commands);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Adds the literal nodes of given {@code commands} to {@code parent}. Labels are
+     * added before aliases, so that an alias can't hide another label.
+     */
+    private void addCommands(final CommandNode parent, final List<CommandInstance> commands, final Predicate<CommandInstance> permitted) {
+        final List<CommandInstance> added = new ArrayList<>();
+        final List<CommandNode> nodes = new ArrayList<>();
+        for (final CommandInstance command : commands) {
+            if (!permitted.test(command) || parent.getChild(command.getLabel().toLowerCase()) != null)
+                continue;
+
+            final CommandNode node = this.createNode(command, permitted);
+            parent.addChild(node);
+            added.add(command);
+            nodes.add(node);
+        }
+
+        for (int i = 0; i < added.size(); i++) {
+            final CommandNode target = nodes.get(i);
+            for (final String alias : added.get(i).getAliases()) {
+                final String literal = alias.toLowerCase();
+                if (parent.getChild(literal) != null)
+                    continue;
+
+                final CommandNode node = new CommandNode(CommandNode.Type.LITERAL, literal, null, target.isExecutable(), false);
+                node.setRedirect(target);
+                parent.addChild(node);
+            }
+        }
+    }
+
+    /**
+     * Creates the literal node of given {@code command} with its sub commands and parameters.
+     */
+    private CommandNode createNode(final CommandInstance command, final Predicate<CommandInstance> permitted) {
+        final CommandUsage usage = command.getUsage();
+        final CommandNode node = new CommandNode(CommandNode.Type.LITERAL, command.getLabel().toLowerCase(), null,
+            usage.getNeededSize() == 0, false);
+        this.addCommands(node, sorted(command.getChildren().values()), permitted);
+
+        final boolean completors = command.hasTabCompletors();
+        CommandNode previous = node;
+        for (int i = 0; i < usage.getParams().size(); i++) {
+            final String name = usage.getName(i);
+            if (name.isEmpty() || previous.getChild(name) != null)
+                break;
+
+            final String typeName = usage.getType(i);
+            final boolean greedy = usage.isGreedy(i);
+            final ParameterType<?> type = typeName == null || greedy ? null : this.brigadier.getRegisteredType(typeName).orElse(null);
+            final String parser = type == null ? STRING_PARSER : type.getParser();
+
+            // the command line is split at spaces, unless the words are enclosed in quotes
+            final CommandNode.StringType stringType = !STRING_PARSER.equals(parser) ? null
+                : greedy ? CommandNode.StringType.GREEDY : CommandNode.StringType.PHRASE;
+            final CommandNode argument = new CommandNode(CommandNode.Type.ARGUMENT, name, parser, stringType,
+                i + 1 >= usage.getNeededSize(), completors || type != null);
+            previous.addChild(argument);
+            previous = argument;
+        }
+        return node;
+    }
+
+    private static List<CommandInstance> sorted(final Iterable<CommandInstance> commands) {
+        final List<CommandInstance> list = new ArrayList<>();
+        commands.forEach(list::add);
+        list.sort(Comparator.comparing(CommandInstance::getLabel, String.CASE_INSENSITIVE_ORDER));
+        return list;
+    }
+
+    /**
+     * The commands a graph is exported from together with their distinct permissions.
+     */
+    private static final class Snapshot {
+
+        /**
+         * The commands, as returned by {@link Brigadier#getCommandsUnwound()}
+         */
+        private final List<CommandInstance> commands;
+
+        /**
+         * The root commands in alphabetical order
+         */
+        private final List<CommandInstance> roots;
+
+        /**
+         * One command per distinct permission of the {@link #commands}
+         */
+        private final CommandInstance[] permissions;
+
+        /**
+         * The distinct permissions mapped with their index inside of {@link #permissions}
+         */
+        private final Map<String, Integer> permissionIndices = new HashMap<>();
+
+        /**
+         * The exported graphs mapped with the set of permissions they have been exported for
+         */
+        private final Map<BitSet, CommandNode> graphs = new ConcurrentHashMap<>();
+
+        private Snapshot(final List<CommandInstance> commands) {
+            this.commands = commands;
+
+            final List<CommandInstance> roots = new ArrayList<>();
+            final Map<String, CommandInstance> permissions = new LinkedHashMap<>();
+            for (final CommandInstance command : commands) {
+                if (command.getParent() == null)
+                    roots.add(command);
+                if (!command.getPermission().isEmpty())
+                    permissions.putIfAbsent(command.getPermission(), command);
+            }
+            for (final String permission : permissions.keySet()) {
+                this.permissionIndices.put(permission, this.permissionIndices.size());
+            }
+            this.roots = sorted(roots);
+            this.permissions = permissions.values().toArray(new CommandInstance[0]);
+        }
+
+    }
+
+}
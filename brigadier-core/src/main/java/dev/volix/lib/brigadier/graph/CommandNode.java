@@ -0,0 +1,187 @@
+package dev.volix.lib.brigadier.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * One node of a {@link CommandGraph}, structured like the nodes of the command
+ * graph minecraft 1.13+ clients receive. Nodes are immutable after the export.
+ *
+ * @author Tobias Büser
+ */
+public final class CommandNode {
+
+    @Getter private final Type type;
+
+    /**
+     * The literal or the name of the argument, empty for the root
+     */
+    @Getter private final String name;
+
+    /**
+     * The identifier of the client side parser, {@code null} if this is not an argument
+     *
+     * @see dev.volix.lib.brigadier.parameter.ParameterType#getParser()
+     */
+    @Getter private final String parser;
+
+    /**
+     * The property of the {@code brigadier:string} parser, {@code null} for every other parser
+     */
+    @Getter private final StringType stringType;
+
+    /**
+     * If the command can be executed after this node
+     */
+    @Getter private final boolean executable;
+
+    /**
+     * If the suggestions of this argument have to be requested from the server,
+     * as they are computed by tab completion methods or parameter types
+     */
+    @Getter private final boolean askServer;
+
+    /**
+     * The node this node redirects to (e.g. the label of an alias), can be {@code null}
+     */
+    @Getter private CommandNode redirect;
+
+    private final List<CommandNode> children = new ArrayList<>();
+
+    CommandNode(final Type type, final String name, final String parser, final boolean executable, final boolean askServer) {
+        this(type, name, parser, null, executable, askServer);
+    }
+
+    CommandNode(final Type type, final String name, final String parser, final StringType stringType,
+                final boolean executable, final boolean askServer) {
+        this.type = type;
+        this.name = name;
+        this.parser = parser;
+        this.stringType = stringType;
+        this.executable = executable;
+        this.askServer = askServer;
+    }
+
+    /**
+     * @return The children of this node, literals first
+     */
+    public List<CommandNode> getChildren() {
+        return Collections.unmodifiableList(this.children);
+    }
+
+    /**
+     * Gets the child with given {@code name}
+     *
+     * @param name The name of the child
+     *
+     * @return The child or {@code null} if not found
+     */
+    public CommandNode getChild(final String name) {
+        for (final CommandNode child : this.children) {
+            if (child.name.equals(name))
+                return child;
+        }
+        return null;
+    }
+
+    /**
+     * Lists this node and every node below it in breadth first order, with this node
+     * at index {@code 0}. That is the order the command packet of minecraft expects, where
+     * children and redirects are referenced by their index inside of this list.
+     *
+     * @return The nodes
+     */
+    public List<CommandNode> flatten() {
+        final List<CommandNode> nodes = new ArrayList<>();
+        final Map<CommandNode, Boolean> visited = new IdentityHashMap<>();
+        final Deque<CommandNode> queue = new ArrayDeque<>();
+        queue.add(this);
+        visited.put(this, true);
+
+        while (!queue.isEmpty()) {
+            final CommandNode node = queue.poll();
+            nodes.add(node);
+            for (final CommandNode child : node.children) {
+                if (visited.put(child, true) == null)
+                    queue.add(child);
+            }
+            if (node.redirect != null && visited.put(node.redirect, true) == null)
+                queue.add(node.redirect);
+        }
+        return nodes;
+    }
+
+    void addChild(final CommandNode child) {
+        // literals first, so that they are tried before arguments
+        if (child.type == Type.LITERAL) {
+            int index = 0;
+            while (index < this.children.size() && this.children.get(index).type == Type.LITERAL) {
+                index++;
+            }
+            this.children.add(index, child);
+        } else {
+            this.children.add(child);
+        }
+    }
+
+    void setRedirect(final CommandNode redirect) {
+        this.redirect = redirect;
+    }
+
+    @Override
+    public String toString() {
+        return this.type == Type.ARGUMENT ? "<" + this.name + ":" + this.parser + ">" : this.name;
+    }
+
+    /**
+     * The types of nodes
+     */
+    public enum Type {
+
+        /**
+         * The root of the graph, its children are the labels of the commands
+         */
+        ROOT,
+
+        /**
+         * A label, an alias or a sub command
+         */
+        LITERAL,
+
+        /**
+         * A parameter of the usage of a command
+         */
+        ARGUMENT
+
+    }
+
+    /**
+     * The properties of the {@code brigadier:string} parser, their ordinals are the
+     * ids the command packet of minecraft expects
+     */
+    public enum StringType {
+
+        /**
+         * A single word without spaces
+         */
+        WORD,
+
+        /**
+         * A single word or a phrase enclosed in quotes
+         */
+        PHRASE,
+
+        /**
+         * The rest of the command line
+         */
+        GREEDY
+
+    }
+
+}
@@ -0,0 +1,47 @@
+package dev.volix.lib.brigadier.help;
+
+import dev.volix.lib.brigadier.command.CommandInstance;
+import lombok.Getter;
+
+/**
+ * One pre-rendered line of the help, describing a single command.
+ *
+ * @author Tobias Büser
+ * @see HelpIndex
+ */
+public final class HelpEntry {
+
+    /**
+     * The command this entry describes
+     */
+    @Getter private final CommandInstance command;
+
+    /**
+     * The labels of the command and its parents followed by its usage (e.g. {@code admin kick <player>})
+     */
+    @Getter private final String commandLine;
+
+    /**
+     * The rendered line
+     */
+    @Getter private final String text;
+
+    HelpEntry(final CommandInstance command, final String commandLine, final String text) {
+        this.command = command;
+        this.commandLine = commandLine;
+        this.text = text;
+    }
+
+    /**
+     * @return The description of the command, empty if there is none
+     */
+    public String getDescription() {
+        return this.command.getDescription();
+    }
+
+    @Override
+    public String toString() {
+        return this.text;
+    }
+
+}
@@ -0,0 +1,257 @@
+package dev.volix.lib.brigadier.help;
+
+import dev.volix.lib.brigadier.Brigadier;
+import dev.volix.lib.brigadier.command.CommandInstance;
+import dev.volix.lib.brigadier.permission.PermissionView;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import lombok.Getter;
+
+/**
+ * Pre-rendered and paginated help of the commands of a {@link Brigadier} instance.
+ * <p>
+ * The pages are rendered once per {@link PermissionView} and only contain the commands
+ * the view permits, so fetching a page is a lookup instead of checking the permission of
+ * every command and formatting every usage again. A view is replaced when commands are
+ * registered or when it has been invalidated, so are its pages. Sources without a permission
+ * fingerprint have no shared view, nothing notices when their permissions change, so their pages
+ * are rendered on every call. Optionally they can be cached per source for a bounded time
+ * ({@link #setSourceCacheTime(long, TimeUnit)}).
+ *
+ * @author Tobias Büser
+ * @see dev.volix.lib.brigadier.BrigadierAdapter#getPermissionFingerprint(Object)
+ */
+public class HelpIndex {
+
+    /**
+     * The default amount of entries per page
+     */
+    public static final int DEFAULT_PAGE_SIZE = 8;
+
+    /**
+     * Renders the command line and the description of a command if it has one (e.g. {@code kick <player> - Kicks a player})
+     */
+    public static final BiFunction<CommandInstance, String, String> DEFAULT_RENDERER = (command, commandLine)
+        -> command.getDescription().isEmpty() ? commandLine : commandLine + " - " + command.getDescription();
+
+    private final Brigadier brigadier;
+
+    /**
+     * The amount of entries per page
+     */
+    @Getter private final int pageSize;
+
+    /**
+     * Renders the text of an entry from the command and its command line
+     */
+    private final BiFunction<CommandInstance, String, String> renderer;
+
+    /**
+     * The rendered pages per view. The views are referenced weakly, so that the
+     * pages are dropped together with views which have been replaced or evicted.
+     */
+    private final Map<PermissionView, HelpPage[]> pages = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The time the pages of a source without a fingerprint are cached for
+     * in nanoseconds, {@code 0} if they are rendered on every call
+     */
+    @Getter private volatile long sourceCacheNanos;
+
+    /**
+     * The rendered pages per source without a fingerprint. The sources are referenced
+     * weakly, so that the pages are dropped together with sources which are gone.
+     */
+    private final Map<Object, SourcePages> sourcePages = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public HelpIndex(final Brigadier brigadier) {
+        this(brigadier, DEFAULT_PAGE_SIZE, DEFAULT_RENDERER);
+    }
+
+    /**
+     * @param brigadier The instance whose commands are described, can't be {@code null}
+     * @param pageSize  The amount of entries per page, has to be positive
+     * @param renderer  Renders the text of an entry from the command and its command line, can't be {@code null}
+     */
+    public HelpIndex(final Brigadier brigadier, final int pageSize, final BiFunction<CommandInstance, String, String> renderer) {
+        if(brigadier == null)
+            throw new NullPointerException("brigadier can't be null");
+        if(renderer == null)
+            throw new NullPointerException("renderer can't be null");
+        if(pageSize <= 0)
+            throw new IllegalArgumentException(String.format("pageSize has to be positive, you supplied %s", pageSize));
+
+        this.brigadier = brigadier;
+        this.pageSize = pageSize;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Gets the page with given {@code number} of the help of given {@code commandSource}.
+     *
+     * @param commandSource The source the help is meant for
+     * @param number        The number of the page, starting at {@code 1}
+     * @param <S>           The type of the source
+     *
+     * @return The page or {@code null} if the help has less pages. The first page
+     * always exists, even if the source isn't allowed to execute any command.
+     */
+    public <S> HelpPage getPage(final S commandSource, final int number) {
+        if(number <= 0)
+            throw new IllegalArgumentException(String.format("number has to be positive, you supplied %s", number));
+
+        final HelpPage[] pages = this.getPages(commandSource);
+        return number > pages.length ? null : pages[number - 1];
+    }
+
+    /**
+     * Gets the amount of pages of the help of given {@code commandSource}.
+     *
+     * @param commandSource The source the help is meant for
+     * @param <S>           The type of the source
+     *
+     * @return The amount, at least {@code 1}
+     */
+    public <S> int getPageCount(final S commandSource) {
+        return this.getPages(commandSource).length;
+    }
+
+    /**
+     * Caches the pages of sources without a permission fingerprint for given time, which is off by default.
+     * Permission changes of such a source are only reflected after this time or after {@link #invalidate(Object)}.
+     *
+     * @param time The time, {@code 0} to render the pages on every call
+     * @param unit The unit of the time
+     */
+    public void setSourceCacheTime(final long time, final TimeUnit unit) {
+        if(unit == null)
+            throw new NullPointerException("unit can't be null");
+        if(time < 0)
+            throw new IllegalArgumentException(String.format("time can't be negative, you supplied %s", time));
+
+        this.sourceCacheNanos = unit.toNanos(time);
+        if (time == 0)
+            this.sourcePages.clear();
+    }
+
+    /**
+     * Drops the pages of given {@code commandSource}, e.g. after its permissions changed.
+     * Sources with a permission fingerprint share their pages with their view, which is
+     * invalidated with {@link dev.volix.lib.brigadier.permission.PermissionViews#invalidate(Object)}.
+     *
+     * @param commandSource The source, can't be {@code null}
+     */
+    public void invalidate(final Object commandSource) {
+        if(commandSource == null)
+            throw new NullPointerException("commandSource can't be null");
+
+        this.sourcePages.remove(commandSource);
+    }
+
+    /**
+     * Drops every rendered page, e.g. after descriptions have been changed.
+     */
+    public void invalidateAll() {
+        this.pages.clear();
+        this.sourcePages.clear();
+    }
+
+    private <S> HelpPage[] getPages(final S commandSource) {
+        final PermissionView view = this.brigadier.getPermissionViews().get(commandSource);
+        if (view == null) {
+            return this.getSourcePages(commandSource);
+        }
+
+        final HelpPage[] cached = this.pages.get(view);
+        if (cached != null)
+            return cached;
+
+        // rendered outside of the lock, concurrent sources of the same view might render it twice
+        final HelpPage[] rendered = this.render(view);
+        final HelpPage[] existing = this.pages.putIfAbsent(view, rendered);
+        return existing != null ? existing : rendered;
+    }
+
+    private <S> HelpPage[] getSourcePages(final S commandSource) {
+        final long cacheNanos = this.sourceCacheNanos;
+        if (commandSource == null || cacheNanos == 0)
+            return this.render(this.brigadier.getPermissionViews().build(commandSource));
+
+        // read before building, so pages built from newer commands are only rendered once more
+        final List<CommandInstance> commands = this.brigadier.getCommandsUnwound();
+        final long now = System.nanoTime();
+        final SourcePages cached = this.sourcePages.get(commandSource);
+        if (cached != null && cached.commands == commands && now - cached.rendered < cacheNanos)
+            return cached.pages;
+
+        final HelpPage[] rendered = this.render(this.brigadier.getPermissionViews().build(commandSource));
+        this.sourcePages.put(commandSource, new SourcePages(commands, now, rendered));
+        return rendered;
+    }
+
+    /**
+     * Renders and paginates every command of given {@code view}.
+     */
+    private HelpPage[] render(final PermissionView view) {
+        final List<HelpEntry> entries = new ArrayList<>(view.getCommands().size());
+        for (final CommandInstance command : view.getCommands()) {
+            final String commandLine = commandLine(command);
+            entries.add(new HelpEntry(command, commandLine, this.renderer.apply(command, commandLine)));
+        }
+        entries.sort(Comparator.comparing(HelpEntry::getCommandLine, String.CASE_INSENSITIVE_ORDER));
+
+        final int pageCount = Math.max(1, (entries.size() + this.pageSize - 1) / this.pageSize);
+        final HelpPage[] pages = new HelpPage[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            final int from = Math.min(entries.size(), i * this.pageSize);
+            final int to = Math.min(entries.size(), from + this.pageSize);
+            final List<HelpEntry> page = Collections.unmodifiableList(Arrays.asList(entries.subList(from, to).toArray(new HelpEntry[0])));
+            pages[i] = new HelpPage(i + 1, pageCount, entries.size(), page);
+        }
+        return pages;
+    }
+
+    /**
+     * Joins the labels of given {@code command} and its parents followed by its usage.
+     */
+    private static String commandLine(final CommandInstance command) {
+        final List<String> labels = new ArrayList<>();
+        for (CommandInstance current = command; current != null; current = current.getParent()) {
+            labels.add(current.getLabel());
+        }
+        Collections.reverse(labels);
+
+        final String usage = command.getUsage().getBase();
+        final String line = String.join(" ", labels);
+        return usage.isEmpty() ? line : line + " " + usage;
+    }
+
+    private static final class SourcePages {
+
+        /**
+         * The commands the pages have been rendered from
+         */
+        private final List<CommandInstance> commands;
+
+        /**
+         * The time the pages have been rendered at, according to {@link System#nanoTime()}
+         */
+        private final long rendered;
+        private final HelpPage[] pages;
+
+        private SourcePages(final List<CommandInstance> commands, final long rendered, final HelpPage[] pages) {
+            this.commands = commands;
+            this.rendered = rendered;
+            this.pages = pages;
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package dev.volix.lib.brigadier.help;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * One page of the help of a permission view, which must not be modified.
+ *
+ * @author Tobias Büser
+ * @see HelpIndex#getPage(Object, int)
+ */
+public final class HelpPage {
+
+    /**
+     * The number of this page, starting at {@code 1}
+     */
+    @Getter private final int number;
+
+    /**
+     * The amount of pages the help consists of
+     */
+    @Getter private final int pageCount;
+
+    /**
+     * The amount of entries of every page together
+     */
+    @Getter private final int entryCount;
+
+    /**
+     * The entries of this page in alphabetical order of their command line
+     */
+    @Getter private final List<HelpEntry> entries;
+
+    HelpPage(final int number, final int pageCount, final int entryCount, final List<HelpEntry> entries) {
+        this.number = number;
+        this.pageCount = pageCount;
+        this.entryCount = entryCount;
+        this.entries = entries;
+    }
+
+    /**
+     * @return {@code true} if there is a page after this one
+     */
+    public boolean hasNext() {
+        return this.number < this.pageCount;
+    }
+
+    /**
+     * @return {@code true} if there is a page before this one
+     */
+    public boolean hasPrevious() {
+        return this.number > 1;
+    }
+
+}
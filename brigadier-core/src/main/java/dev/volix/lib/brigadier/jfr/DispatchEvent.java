@@ -0,0 +1,62 @@
+package dev.volix.lib.brigadier.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of one stage of the command dispatching.
+ *
+ * @author Tobias Büser
+ * @see DispatchRecorder
+ */
+@Category("Brigadier")
+@StackTrace(false)
+abstract class DispatchEvent extends Event {
+
+    @Label("Command Path")
+    String path;
+
+    @Label("Result Code")
+    String result;
+
+    @Label("Source Type")
+    String sourceType;
+
+    @Label("Async")
+    boolean async;
+
+    @Name("dev.volix.brigadier.ExecuteCommand")
+    @Label("Execute Command")
+    @Description("Whole execution of a command line, including the result handlers")
+    static class ExecuteCommand extends DispatchEvent {
+    }
+
+    @Name("dev.volix.brigadier.TabCompletion")
+    @Label("Tab Completion")
+    @Description("Tokenization, tree walk and tab completion methods of one request")
+    static class TabCompletion extends DispatchEvent {
+    }
+
+    @Name("dev.volix.brigadier.Dispatch")
+    @Label("Dispatch")
+    @Description("Permission checks, path resolving and argument checks of a command")
+    static class Dispatch extends DispatchEvent {
+    }
+
+    @Name("dev.volix.brigadier.Invoke")
+    @Label("Invoke")
+    @Description("Reflective invocation of the command method")
+    static class Invoke extends DispatchEvent {
+    }
+
+    @Name("dev.volix.brigadier.HandleResult")
+    @Label("Handle Result")
+    @Description("Invocation of the result handler methods")
+    static class HandleResult extends DispatchEvent {
+    }
+
+}
@@ -0,0 +1,96 @@
+package dev.volix.lib.brigadier.jfr;
+
+/**
+ * Records the different stages of the command dispatching as
+ * Java Flight Recorder events (see {@link DispatchEvent}).
+ * <p>
+ * This class doesn't reference any {@code jdk.jfr} class itself, so that brigadier
+ * still runs on Java 8 runtimes without flight recorder. The events are
+ * enabled and disabled with the usual JFR settings (e.g. {@code dev.volix.brigadier.Invoke#enabled=true}).
+ * If an event type is disabled, {@link #begin(Stage)} returns {@code null} without allocating
+ * anything. The recording can be turned off completely with {@code -Dbrigadier.jfr=false}.
+ *
+ * @author Tobias Büser
+ */
+public final class DispatchRecorder {
+
+    /**
+     * If flight recorder is available at all
+     */
+    private static final boolean AVAILABLE = checkAvailable();
+
+    private DispatchRecorder() {
+    }
+
+    /**
+     * Starts the event of given {@code stage}.
+     *
+     * @param stage The stage of the dispatching
+     *
+     * @return The started event or {@code null} if the event type is disabled
+     */
+    public static Object begin(final Stage stage) {
+        return AVAILABLE ? JfrEvents.begin(stage) : null;
+    }
+
+    /**
+     * Ends and commits given {@code event}.
+     *
+     * @param event         The event of {@link #begin(Stage)}, can be {@code null}
+     * @param path          The path of the command, can be {@code null}
+     * @param result        The result code, can be {@code null}
+     * @param commandSource The source, only its class is recorded
+     * @param async         If the command is executed asynchronously
+     */
+    public static void commit(final Object event, final String path, final Enum<?> result, final Object commandSource, final boolean async) {
+        if (event != null) {
+            JfrEvents.commit(event, path, result == null ? null : result.name(),
+                commandSource == null ? null : commandSource.getClass().getName(), async);
+        }
+    }
+
+    private static boolean checkAvailable() {
+        if (!Boolean.parseBoolean(System.getProperty("brigadier.jfr", "true")))
+            return false;
+
+        try {
+            Class.forName("jdk.jfr.Event", false, DispatchRecorder.class.getClassLoader());
+            return true;
+        } catch (final ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * The stages of the dispatching, which can be recorded
+     */
+    public enum Stage {
+
+        /**
+         * {@link dev.volix.lib.brigadier.Brigadier#executeCommand(Object, String, String[])}
+         */
+        EXECUTE_COMMAND,
+
+        /**
+         * {@link dev.volix.lib.brigadier.Brigadier#executeTabCompletion(Object, String)}
+         */
+        TAB_COMPLETION,
+
+        /**
+         * {@link dev.volix.lib.brigadier.command.CommandInstance#execute(Object, String[])}
+         */
+        DISPATCH,
+
+        /**
+         * The invocation of the command method itself
+         */
+        INVOKE,
+
+        /**
+         * {@link dev.volix.lib.brigadier.command.CommandInstance#handleResult(Object, dev.volix.lib.brigadier.command.ExecutionResult)}
+         */
+        HANDLE_RESULT
+
+    }
+
+}
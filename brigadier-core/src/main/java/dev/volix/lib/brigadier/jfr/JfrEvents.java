@@ -0,0 +1,65 @@
+package dev.volix.lib.brigadier.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * The part of the {@link DispatchRecorder} which references flight recorder.
+ * This class is only loaded if flight recorder is available.
+ *
+ * @author Tobias Büser
+ */
+final class JfrEvents {
+
+    private static final EventType EXECUTE_COMMAND = EventType.getEventType(DispatchEvent.ExecuteCommand.class);
+    private static final EventType TAB_COMPLETION = EventType.getEventType(DispatchEvent.TabCompletion.class);
+    private static final EventType DISPATCH = EventType.getEventType(DispatchEvent.Dispatch.class);
+    private static final EventType INVOKE = EventType.getEventType(DispatchEvent.Invoke.class);
+    private static final EventType HANDLE_RESULT = EventType.getEventType(DispatchEvent.HandleResult.class);
+
+    private JfrEvents() {
+    }
+
+    static Object begin(final DispatchRecorder.Stage stage) {
+        final DispatchEvent event;
+        switch (stage) {
+            case EXECUTE_COMMAND:
+                if (!EXECUTE_COMMAND.isEnabled()) return null;
+                event = new DispatchEvent.ExecuteCommand();
+                break;
+            case TAB_COMPLETION:
+                if (!TAB_COMPLETION.isEnabled()) return null;
+                event = new DispatchEvent.TabCompletion();
+                break;
+            case DISPATCH:
+                if (!DISPATCH.isEnabled()) return null;
+                event = new DispatchEvent.Dispatch();
+                break;
+            case INVOKE:
+                if (!INVOKE.isEnabled()) return null;
+                event = new DispatchEvent.Invoke();
+                break;
+            case HANDLE_RESULT:
+                if (!HANDLE_RESULT.isEnabled()) return null;
+                event = new DispatchEvent.HandleResult();
+                break;
+            default:
+                return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commit(final Object object, final String path, final String result, final String sourceType, final boolean async) {
+        final DispatchEvent event = (DispatchEvent) object;
+        event.end();
+        if (!event.shouldCommit())
+            return;
+
+        event.path = path;
+        event.result = result;
+        event.sourceType = sourceType;
+        event.async = async;
+        event.commit();
+    }
+
+}
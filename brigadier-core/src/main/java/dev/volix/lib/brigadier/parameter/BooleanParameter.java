@@ -1,5 +1,9 @@
 package dev.volix.lib.brigadier.parameter;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @author Tobias Büser
  */
@@ -15,4 +19,28 @@ public class BooleanParameter implements ParameterType<Boolean> {
         return Boolean.class;
     }
 
+    @Override
+    public List<String> getAliases() {
+        return Collections.singletonList("bool");
+    }
+
+    /**
+     * Only accepts {@code true} and {@code false} (case insensitive), even though
+     * {@link #parse(String)} resolves every other string to {@code false}.
+     */
+    @Override
+    public boolean accepts(final String string) {
+        return "true".equalsIgnoreCase(string) || "false".equalsIgnoreCase(string);
+    }
+
+    @Override
+    public List<String> getConstants() {
+        return Arrays.asList("false", "true");
+    }
+
+    @Override
+    public String getParser() {
+        return "brigadier:bool";
+    }
+
 }
@@ -19,4 +19,9 @@ public class DoubleParameter implements ParameterType<Double> {
         return Double.class;
     }
 
+    @Override
+    public String getParser() {
+        return "brigadier:double";
+    }
+
 }
@@ -0,0 +1,34 @@
+package dev.volix.lib.brigadier.parameter;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for enum constants, which should be resolvable by
+ * other names than {@link Enum#name()} as well.
+ * Example:
+ * <pre>
+ * public enum Mode {
+ *     &#64;EnumAlias({"c", "1"}) CREATIVE,
+ *     &#64;EnumAlias({"s", "0"}) SURVIVAL
+ * }
+ * </pre>
+ *
+ * @author Tobias Büser
+ * @see EnumParameterType
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface EnumAlias {
+
+    /**
+     * The aliases of the enum constant. They are case insensitive
+     * and can't override the name of another constant.
+     *
+     * @return The aliases
+     */
+    String[] value();
+
+}
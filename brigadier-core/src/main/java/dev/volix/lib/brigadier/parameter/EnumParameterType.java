@@ -0,0 +1,222 @@
+package dev.volix.lib.brigadier.parameter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parameter type for every kind of {@link Enum}.
+ * A constant can be resolved by its case insensitive {@link Enum#name()},
+ * one of its {@link EnumAlias}es or its {@link Enum#ordinal()}.
+ * <p>
+ * The lookup table of an enum class is built only once and then shared
+ * between every parameter type and {@link ParameterSet#getEnum(int, Class, Enum)}.
+ *
+ * @param <E> The type of the enum
+ *
+ * @author Tobias Büser
+ */
+public class EnumParameterType<E extends Enum<E>> implements ParameterType<E> {
+
+    /**
+     * The lookup tables mapped with their respective enum class
+     */
+    private static final ClassValue<Table> TABLES = new ClassValue<Table>() {
+        @Override
+        protected Table computeValue(final Class<?> type) {
+            return new Table(type);
+        }
+    };
+
+    private final Class<E> typeClass;
+
+    public EnumParameterType(final Class<E> typeClass) {
+        if(typeClass == null)
+            throw new NullPointerException("typeClass can't be null");
+        if(!typeClass.isEnum())
+            throw new IllegalArgumentException(String.format("%s is not an enum class", typeClass));
+
+        this.typeClass = typeClass;
+    }
+
+    /**
+     * Gets the cached lookup table of given {@code enumClass}
+     *
+     * @param enumClass The class of the enum, can't be {@code null}
+     *
+     * @return The table
+     *
+     * @throws NullPointerException     If the {@code enumClass} is {@code null}
+     * @throws IllegalArgumentException If the {@code enumClass} is not an enum
+     */
+    public static Table lookup(final Class<?> enumClass) {
+        if(enumClass == null)
+            throw new NullPointerException("enumClass can't be null");
+        if(!enumClass.isEnum())
+            throw new IllegalArgumentException(String.format("%s is not an enum class", enumClass));
+
+        return TABLES.get(enumClass);
+    }
+
+    @Override
+    public E parse(final String string) {
+        return this.typeClass.cast(lookup(this.typeClass).get(string));
+    }
+
+    @Override
+    public Class<E> getTypeClass() {
+        return this.typeClass;
+    }
+
+    /**
+     * Gets every constant name starting with given {@code prefix}
+     *
+     * @param prefix The prefix, case insensitive
+     *
+     * @return The lower cased names in alphabetical order
+     *
+     * @see Table#complete(String)
+     */
+    public List<String> complete(final String prefix) {
+        return lookup(this.typeClass).complete(prefix);
+    }
+
+    @Override
+    public <S> List<String> complete(final S commandSource, final String prefix) {
+        return this.complete(prefix);
+    }
+
+    @Override
+    public List<String> getConstants() {
+        return lookup(this.typeClass).getNames();
+    }
+
+    /**
+     * The lookup table of one enum class.
+     */
+    public static final class Table {
+
+        /**
+         * The lower cased names and aliases mapped with their respective constant
+         */
+        private final Map<String, Enum<?>> byName = new HashMap<>();
+
+        /**
+         * The constants in order of their ordinal
+         */
+        private final Enum<?>[] byOrdinal;
+
+        /**
+         * The lower cased names of the constants in alphabetical order
+         */
+        private final String[] sortedNames;
+
+        private Table(final Class<?> enumClass) {
+            this.byOrdinal = (Enum<?>[]) enumClass.getEnumConstants();
+            this.sortedNames = new String[this.byOrdinal.length];
+
+            for (int i = 0; i < this.byOrdinal.length; i++) {
+                final String name = this.byOrdinal[i].name().toLowerCase(Locale.ROOT);
+                this.byName.put(name, this.byOrdinal[i]);
+                this.sortedNames[i] = name;
+            }
+            Arrays.sort(this.sortedNames);
+
+            // aliases are put afterwards, so that they can't override a name
+            for (final Enum<?> constant : this.byOrdinal) {
+                final EnumAlias alias;
+                try {
+                    alias = enumClass.getField(constant.name()).getAnnotation(EnumAlias.class);
+                } catch (final NoSuchFieldException ex) {
+                    continue;
+                }
+                if (alias == null) continue;
+
+                for (final String name : alias.value()) {
+                    if (name.isEmpty()) continue;
+                    this.byName.putIfAbsent(name.toLowerCase(Locale.ROOT), constant);
+                }
+            }
+        }
+
+        /**
+         * Resolves given {@code string} to the matching constant.
+         * Names and aliases are checked first, after that the string
+         * is treated as ordinal if it only consists of digits.
+         *
+         * @param string The string to resolve, can be {@code null}
+         *
+         * @return The constant or {@code null} if nothing matches
+         */
+        public Enum<?> get(final String string) {
+            if (string == null || string.isEmpty())
+                return null;
+
+            final Enum<?> constant = this.byName.get(string.toLowerCase(Locale.ROOT));
+            if (constant != null)
+                return constant;
+
+            final int ordinal = parseOrdinal(string);
+            return ordinal < 0 || ordinal >= this.byOrdinal.length ? null : this.byOrdinal[ordinal];
+        }
+
+        /**
+         * Gets every constant name starting with given {@code prefix}
+         * by doing a binary search in {@link #sortedNames}.
+         *
+         * @param prefix The prefix, case insensitive. Every name if {@code null} or empty
+         *
+         * @return The lower cased names in alphabetical order
+         */
+        public List<String> complete(final String prefix) {
+            if (prefix == null || prefix.isEmpty())
+                return new ArrayList<>(Arrays.asList(this.sortedNames));
+
+            final String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+            int index = Arrays.binarySearch(this.sortedNames, lowerPrefix);
+            if (index < 0) index = -index - 1;
+
+            final List<String> names = new ArrayList<>();
+            while (index < this.sortedNames.length && this.sortedNames[index].startsWith(lowerPrefix)) {
+                names.add(this.sortedNames[index++]);
+            }
+            return names;
+        }
+
+        /**
+         * @return The lower cased names of every constant in alphabetical order
+         */
+        public List<String> getNames() {
+            return Collections.unmodifiableList(Arrays.asList(this.sortedNames));
+        }
+
+        /**
+         * Parses given {@code string} as ordinal without relying on
+         * {@link NumberFormatException}s.
+         *
+         * @param string The string, can't be {@code null}
+         *
+         * @return The ordinal or {@code -1} if the string is not a valid ordinal
+         */
+        private static int parseOrdinal(final String string) {
+            // more digits can't be a valid ordinal anyway
+            if (string.length() > 9)
+                return -1;
+
+            int ordinal = 0;
+            for (int i = 0; i < string.length(); i++) {
+                final char c = string.charAt(i);
+                if (c < '0' || c > '9')
+                    return -1;
+                ordinal = ordinal * 10 + (c - '0');
+            }
+            return ordinal;
+        }
+
+    }
+
+}
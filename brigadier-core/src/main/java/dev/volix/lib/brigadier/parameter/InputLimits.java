@@ -0,0 +1,95 @@
+package dev.volix.lib.brigadier.parameter;
+
+import lombok.Getter;
+
+/**
+ * Hard limits for command lines received from command sources. Input exceeding
+ * one of the limits is rejected before it is parsed any further, so that clients
+ * can't make the dispatching expensive with extremely long command lines.
+ * <p>
+ * The limits are checked while the command line is scanned
+ * ({@link ParameterSet#retrieveArguments(String, boolean, InputLimits)}), the scan stops
+ * at the first exceeded limit.
+ *
+ * @author Tobias Büser
+ * @see dev.volix.lib.brigadier.Brigadier#setInputLimits(InputLimits)
+ */
+public final class InputLimits {
+
+    /**
+     * The default limits, generous enough for every command line a minecraft client
+     * or command block can send (at most 32767 characters)
+     */
+    public static final InputLimits DEFAULT = new InputLimits(32767, 512, 4096);
+
+    /**
+     * No limits at all
+     */
+    public static final InputLimits UNLIMITED = new InputLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    /**
+     * The maximum amount of characters of the whole command line
+     */
+    @Getter private final int maxLineLength;
+
+    /**
+     * The maximum amount of arguments including the label
+     */
+    @Getter private final int maxTokens;
+
+    /**
+     * The maximum amount of characters of one argument, including argument groups ('"')
+     */
+    @Getter private final int maxTokenLength;
+
+    public InputLimits(final int maxLineLength, final int maxTokens, final int maxTokenLength) {
+        if(maxLineLength <= 0)
+            throw new IllegalArgumentException(String.format("maxLineLength has to be positive, you supplied %s", maxLineLength));
+        if(maxTokens <= 0)
+            throw new IllegalArgumentException(String.format("maxTokens has to be positive, you supplied %s", maxTokens));
+        if(maxTokenLength <= 0)
+            throw new IllegalArgumentException(String.format("maxTokenLength has to be positive, you supplied %s", maxTokenLength));
+
+        this.maxLineLength = maxLineLength;
+        this.maxTokens = maxTokens;
+        this.maxTokenLength = maxTokenLength;
+    }
+
+    /**
+     * Checks the length of the whole command line without scanning it.
+     *
+     * @param commandLine The command line, can't be {@code null}
+     *
+     * @return The result. {@code true} if the line is not too long.
+     */
+    public boolean allowsLength(final String commandLine) {
+        return commandLine.length() <= this.maxLineLength;
+    }
+
+    /**
+     * Checks arguments, which are already split by the platform. The check stops at
+     * the first exceeded limit and doesn't allocate anything.
+     *
+     * @param label  The label of the command, can't be {@code null}
+     * @param args   The arguments after the label, can't be {@code null}
+     * @param offset The index of the first argument inside of {@code args}
+     *
+     * @return The result. {@code true} if no limit is exceeded.
+     */
+    public boolean allows(final String label, final String[] args, final int offset) {
+        final int tokens = 1 + Math.max(0, args.length - offset);
+        if (tokens > this.maxTokens || label.length() > this.maxTokenLength)
+            return false;
+
+        // the length of the line as if the arguments were joined with spaces
+        long lineLength = label.length();
+        for (int i = offset; i < args.length; i++) {
+            final int length = args[i].length();
+            lineLength += 1 + length;
+            if (length > this.maxTokenLength || lineLength > this.maxLineLength)
+                return false;
+        }
+        return lineLength <= this.maxLineLength;
+    }
+
+}
@@ -1,5 +1,8 @@
 package dev.volix.lib.brigadier.parameter;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @author Tobias Büser
  */
@@ -19,4 +22,14 @@ public class IntegerParameter implements ParameterType<Integer> {
         return Integer.class;
     }
 
+    @Override
+    public List<String> getAliases() {
+        return Collections.singletonList("int");
+    }
+
+    @Override
+    public String getParser() {
+        return "brigadier:integer";
+    }
+
 }
@@ -1,11 +1,12 @@
 package dev.volix.lib.brigadier.parameter;
 
 import dev.volix.lib.brigadier.Brigadier;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.RandomAccess;
 import lombok.Getter;
 
 /**
@@ -14,11 +15,15 @@ import lombok.Getter;
 public class ParameterSet {
 
     /**
-     * The pattern of the different parameter. Either splitted with ' ' or with '"'<br>
-     * Example: '/command subcommand arg0 arg1 "arg2 arg2.1 arg2.3" arg4' results in these arguments:<br>
-     * 'arg0', 'arg1', 'arg2 arg2.1 arg2.3', 'arg4'
+     * The reusable parameter set of every thread, see {@link #borrow(Brigadier, String[], int)}
      */
-    private static final Pattern PARAMETER_PATTERN = Pattern.compile("([\"][^\"]*[\"])|([^\" ]+)");
+    private static final ThreadLocal<ParameterSet> REUSABLE = ThreadLocal.withInitial(() -> new ParameterSet(null, new ArgumentList()));
+
+    /**
+     * The instance whose registered types are used for parsing,
+     * {@code null} for the default instance
+     */
+    private Brigadier brigadier;
 
     /**
      * The list of parameters
@@ -30,45 +35,191 @@ public class ParameterSet {
      */
     private int paramIndex = 0;
 
-    public ParameterSet(final List<String> parameters) {
+    /**
+     * If this reusable set is currently borrowed
+     */
+    private boolean borrowed;
+
+    public ParameterSet(final Brigadier brigadier, final List<String> parameters) {
+        this.brigadier = brigadier;
         this.parameters = parameters;
     }
 
+    public ParameterSet(final List<String> parameters) {
+        this(null, parameters);
+    }
+
     public ParameterSet(final String commandLine) {
         this(retrieveArguments(commandLine));
     }
 
+    /**
+     * Creates a parameter set from arguments, which are already split by the platform.
+     * If the arguments don't contain any argument groups ('"') or empty arguments, they
+     * are used as they are without joining and parsing them again.
+     *
+     * @param brigadier The instance whose registered types are used, {@code null} for the default instance
+     * @param args      The arguments, can't be {@code null}
+     * @param offset    The index of the first argument inside of {@code args}
+     */
+    public ParameterSet(final Brigadier brigadier, final String[] args, final int offset) {
+        this(brigadier, isPlain(args, offset, args.length)
+            ? new ArrayList<>(Arrays.asList(args).subList(offset, args.length))
+            : retrieveArguments(String.join(" ", Arrays.asList(args).subList(offset, args.length)).trim()));
+    }
+
+    public ParameterSet(final String[] args, final int offset) {
+        this(null, args, offset);
+    }
+
+    /**
+     * Gets a parameter set of given {@code args} like {@link #ParameterSet(Brigadier, String[], int)}, but
+     * reuses the parameter set of the current thread if possible. That is the case if the arguments
+     * are plain ({@link #isPlain(String[], int, int)}) and the set of this thread isn't borrowed already
+     * (e.g. by a command, which executes another command). The parameters of a borrowed set are unmodifiable.
+     * <p>
+     * The set has to be {@link #release() released} afterwards and must not be used after that.
+     *
+     * @param brigadier The instance whose registered types are used, {@code null} for the default instance
+     * @param args      The arguments, can't be {@code null}
+     * @param offset    The index of the first argument inside of {@code args}
+     *
+     * @return The parameter set
+     */
+    public static ParameterSet borrow(final Brigadier brigadier, final String[] args, final int offset) {
+        final ParameterSet reusable = REUSABLE.get();
+        if (reusable.borrowed || !isPlain(args, offset, args.length)) {
+            return new ParameterSet(brigadier, args, offset);
+        }
+
+        ((ArgumentList) reusable.parameters).reset(args, offset);
+        reusable.brigadier = brigadier;
+        reusable.paramIndex = 0;
+        reusable.borrowed = true;
+        return reusable;
+    }
+
+    /**
+     * Gives a set of {@link #borrow(Brigadier, String[], int)} back, so that it can be reused.
+     * Does nothing if this set is not reusable.
+     */
+    public void release() {
+        if (!this.borrowed)
+            return;
+
+        // don't keep the arguments alive
+        ((ArgumentList) this.parameters).reset(ArgumentList.NO_ARGUMENTS, 0);
+        this.brigadier = null;
+        this.borrowed = false;
+    }
+
     /**
      * Gets all arguments from given command line with allowing '"' parts to be an argument group.
+     * The arguments are either split with ' ' or with '"'<br>
+     * Example: '/command subcommand arg0 arg1 "arg2 arg2.1 arg2.3" arg4' results in these arguments:<br>
+     * '/command', 'subcommand', 'arg0', 'arg1', 'arg2 arg2.1 arg2.3', 'arg4'
+     * <p>
+     * The line is scanned only once and the scan stops as soon as one of the given
+     * {@code limits} is exceeded, so that even hostile input can't take longer than linear time.
      *
      * @param commandLine The arguments as command line string, can't be {@code null}
+     * @param ignoreEmpty If no empty argument should be added for a trailing space
+     * @param limits      The limits of the command line, can't be {@code null}
      *
-     * @return The list of parameters
+     * @return The list of parameters or {@code null} if a limit is exceeded
      *
      * @throws NullPointerException If {@code commandLine} is {@code null}
      */
-    public static List<String> retrieveArguments(final String commandLine, final boolean ignoreEmpty) {
+    public static List<String> retrieveArguments(final String commandLine, final boolean ignoreEmpty, final InputLimits limits) {
         if(commandLine == null)
             throw new NullPointerException("command line can't be null");
+        if (!limits.allowsLength(commandLine))
+            return null;
         if (commandLine.isEmpty()) {
             return new ArrayList<>();
         }
 
         final List<String> arguments = new ArrayList<>();
-        final Matcher matcher = PARAMETER_PATTERN.matcher(commandLine);
-        while (matcher.find()) {
-            arguments.add(matcher.group().replaceAll("\"", ""));
+        final int length = commandLine.length();
+        int index = 0;
+        while (index < length) {
+            final char c = commandLine.charAt(index);
+            final int start;
+            final int end;
+            if (c == ' ') {
+                index++;
+                continue;
+            } else if (c == '"') {
+                // an argument group, a quote without closing quote is ignored
+                final int closing = commandLine.indexOf('"', index + 1);
+                if (closing < 0) {
+                    index++;
+                    continue;
+                }
+                start = index + 1;
+                end = closing;
+                index = closing + 1;
+            } else {
+                start = index;
+                while (index < length && commandLine.charAt(index) != ' ' && commandLine.charAt(index) != '"') {
+                    index++;
+                }
+                end = index;
+            }
+
+            if (end - start > limits.getMaxTokenLength() || arguments.size() >= limits.getMaxTokens())
+                return null;
+            arguments.add(commandLine.substring(start, end));
         }
 
-        if ((commandLine.endsWith(" ") && !ignoreEmpty) || arguments.isEmpty())
+        if ((commandLine.charAt(length - 1) == ' ' && !ignoreEmpty) || arguments.isEmpty()) {
+            if (arguments.size() >= limits.getMaxTokens())
+                return null;
             arguments.add("");
+        }
         return arguments;
     }
 
+    /**
+     * Gets all arguments from given command line without any limits.
+     *
+     * @see #retrieveArguments(String, boolean, InputLimits)
+     */
+    public static List<String> retrieveArguments(final String commandLine, final boolean ignoreEmpty) {
+        return retrieveArguments(commandLine, ignoreEmpty, InputLimits.UNLIMITED);
+    }
+
     public static List<String> retrieveArguments(final String commandLine) {
         return retrieveArguments(commandLine, false);
     }
 
+    /**
+     * Checks if the given range of pre-split {@code args} would result in the same
+     * arguments when joined and parsed with {@link #retrieveArguments(String)}.
+     * That is the case if no argument contains a '"' and no argument is empty.
+     *
+     * @param args The arguments, can't be {@code null}
+     * @param from The first index inclusive
+     * @param to   The last index exclusive
+     *
+     * @return The result. {@code true} if the arguments can be used as they are.
+     */
+    public static boolean isPlain(final String[] args, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            final String arg = args[i];
+            if (arg.isEmpty() || arg.indexOf('"') >= 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The instance whose registered types are used for parsing
+     */
+    public Brigadier getBrigadier() {
+        return this.brigadier == null ? Brigadier.getInstance() : this.brigadier;
+    }
+
     /**
      * @return The {@link #parameters} size
      */
@@ -139,7 +290,7 @@ public class ParameterSet {
 
     /**
      * Gets a specific parameter casted to {@code typeClass} if the type is registered with
-     * {@link Brigadier#registerTypes(ParameterType[])}
+     * {@link Brigadier#registerTypes(ParameterType[])} of the {@link #getBrigadier()} instance
      *
      * @param index        the parameter index, can't be out of bounds.
      * @param typeClass    the class of the parameter (e.g. {@link Integer#getClass()})
@@ -151,7 +302,7 @@ public class ParameterSet {
     public <T> T get(int index, final Class<T> typeClass, final T defaultValue) {
         if (index < 0) index = 0;
 
-        final Optional<ParameterType<T>> typeOptional = Brigadier.getInstance().getRegisteredType(typeClass);
+        final Optional<ParameterType<T>> typeOptional = this.getBrigadier().getRegisteredType(typeClass);
         final String param = this.get(index);
         if (!typeOptional.isPresent() || param == null)
             return defaultValue;
@@ -219,7 +370,9 @@ public class ParameterSet {
     }
 
     /**
-     * Gets an enum from given {@code paramIndex} and {@code enumClass}
+     * Gets an enum from given {@code paramIndex} and {@code enumClass}.
+     * The parameter can either be the name, an {@link EnumAlias} or the ordinal
+     * of the enum constant.
      *
      * @param paramIndex   The index of the argument
      * @param enumClass    The class of the {@link Enum}
@@ -231,30 +384,45 @@ public class ParameterSet {
     public <E extends Enum> E getEnum(final int paramIndex, final Class<E> enumClass, final E defaultValue) {
         final String param = this.get(paramIndex);
         if (param == null) return defaultValue;
-        final Enum[] enums = enumClass.getEnumConstants();
 
-        // if the string is an integer, get the enum directly from the ordinal
-        Integer ordinal = null;
-        try {
-            ordinal = Integer.parseInt(param);
-        } catch (NumberFormatException ex) {
-            // do nothing
+        // the lookup table is cached per enum class, see EnumParameterType
+        final Enum value = EnumParameterType.lookup(enumClass).get(param);
+        return value == null ? defaultValue : (E) value;
+    }
+
+    public <E extends Enum> Optional<E> getEnum(final int paramIndex, final Class<E> enumClass) {
+        return Optional.ofNullable(this.getEnum(paramIndex, enumClass, null));
+    }
+
+    /**
+     * An unmodifiable view of pre-split arguments, which can
+     * be pointed at other arguments again.
+     */
+    private static final class ArgumentList extends AbstractList<String> implements RandomAccess {
+
+        private static final String[] NO_ARGUMENTS = new String[0];
+
+        private String[] args = NO_ARGUMENTS;
+        private int offset;
+
+        private ArgumentList reset(final String[] args, final int offset) {
+            this.args = args;
+            this.offset = offset;
+            return this;
         }
 
-        if (ordinal != null) {
-            if (ordinal >= enums.length || ordinal < 0) return defaultValue;
-            return (E) enums[ordinal];
+        @Override
+        public String get(final int index) {
+            if (index < 0 || index >= this.size())
+                throw new IndexOutOfBoundsException(String.format("Index: %s, Size: %s", index, this.size()));
+            return this.args[this.offset + index];
         }
 
-        for (final Enum e : enums) {
-            if (param.equalsIgnoreCase(e.name()))
-                return (E) e;
+        @Override
+        public int size() {
+            return this.args.length - this.offset;
         }
-        return defaultValue;
-    }
 
-    public <E extends Enum> Optional<E> getEnum(final int paramIndex, final Class<E> enumClass) {
-        return Optional.ofNullable(this.getEnum(paramIndex, enumClass, null));
     }
 
 }
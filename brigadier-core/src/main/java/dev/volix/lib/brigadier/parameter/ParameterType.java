@@ -1,5 +1,10 @@
 package dev.volix.lib.brigadier.parameter;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * @author Tobias Büser
  */
@@ -19,4 +24,91 @@ public interface ParameterType<T> {
      */
     Class<T> getTypeClass();
 
+    /**
+     * The name of the type, which can be used inside of a {@code usage}
+     * to declare the type of a parameter (e.g. {@code <target:player>}).
+     *
+     * @return The lower cased name, by default the simple name of {@link #getTypeClass()}
+     */
+    default String getName() {
+        return this.getTypeClass().getSimpleName().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Other names of the type, which can be used inside of a {@code usage} as well
+     * (e.g. {@code int} for {@code integer}).
+     *
+     * @return The lower cased aliases, empty by default
+     */
+    default List<String> getAliases() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Checks if given {@code string} is a valid value of this type. Arguments of parameters
+     * declaring this type are validated before the command is invoked, see
+     * {@link dev.volix.lib.brigadier.command.ExecutionResult.Code#INVALID_ARGUMENT}.
+     *
+     * @param string The argument, can't be {@code null}
+     *
+     * @return The result, by default if {@link #parse(String)} doesn't return {@code null}
+     */
+    default boolean accepts(final String string) {
+        return this.parse(string) != null;
+    }
+
+    /**
+     * Gets suggestions for a parameter of this type, which will be offered
+     * automatically during tab completion if the usage declares the type.
+     *
+     * @param commandSource The source executing the tab completion
+     * @param prefix        The argument typed so far, can be empty
+     * @param <S>           The type of the source
+     *
+     * @return The suggestions starting with {@code prefix} (case insensitive). Empty by default
+     */
+    default <S> List<String> complete(final S commandSource, final String prefix) {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Gets at most {@code limit} suggestions for a parameter of this type. Override it, if the
+     * suggestions can be produced lazily, so that no more than needed are produced.
+     *
+     * @param commandSource The source executing the tab completion
+     * @param prefix        The argument typed so far, can be empty
+     * @param limit         The maximum amount of suggestions
+     * @param <S>           The type of the source
+     *
+     * @return The suggestions starting with {@code prefix} (case insensitive), by default the
+     * first {@code limit} of {@link #complete(Object, String)}
+     */
+    default <S> List<String> complete(final S commandSource, final String prefix, final int limit) {
+        final List<String> suggestions = this.complete(commandSource, prefix);
+        return suggestions.size() <= limit ? suggestions : suggestions.subList(0, limit);
+    }
+
+    /**
+     * The fixed set of values of this type (e.g. the names of an enum). They are compiled into
+     * the static suggestions of every parameter declaring this type, which are served from memory
+     * during tab completion instead of calling {@link #complete(Object, String)}.
+     *
+     * @return The values, empty by default if the values aren't fixed
+     */
+    default List<String> getConstants() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * The identifier of the client side argument parser (like in the command graph of
+     * minecraft 1.13+), which validates a parameter of this type while it is being written.
+     *
+     * @return The identifier, by default {@code brigadier:string}
+     *
+     * @see dev.volix.lib.brigadier.graph.CommandGraph
+     */
+    default String getParser() {
+        return "brigadier:string";
+    }
+
 }
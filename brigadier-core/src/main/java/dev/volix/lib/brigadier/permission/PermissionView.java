@@ -0,0 +1,105 @@
+package dev.volix.lib.brigadier.permission;
+
+import dev.volix.lib.brigadier.command.CommandInstance;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import lombok.Getter;
+
+/**
+ * Immutable view of the command trees, pruned to the commands the sources of one permission
+ * fingerprint are allowed to see. The permissions are only checked once per distinct permission
+ * while the view is built, afterwards every check is a lookup.
+ *
+ * @author Tobias Büser
+ * @see PermissionViews
+ */
+public final class PermissionView {
+
+    /**
+     * The fingerprint of the sources this view belongs to
+     */
+    @Getter private final Object fingerprint;
+
+    /**
+     * The distinct permissions the sources have
+     */
+    private final Set<String> granted = new HashSet<>();
+
+    /**
+     * Every command whose whole path is permitted, in the order of {@link dev.volix.lib.brigadier.Brigadier#getCommandsUnwound()}
+     */
+    @Getter private final List<CommandInstance> commands;
+
+    /**
+     * The permitted root commands
+     */
+    @Getter private final List<CommandInstance> roots;
+
+    /**
+     * The commands this view has been built from
+     */
+    final List<CommandInstance> source;
+
+    /**
+     * Builds the view of given {@code commands}.
+     *
+     * @param fingerprint The fingerprint of the sources
+     * @param commands    Every command, parents before their children
+     * @param permitted   Checks the permission of a command, called once per distinct permission
+     */
+    PermissionView(final Object fingerprint, final List<CommandInstance> commands, final Predicate<CommandInstance> permitted) {
+        this.fingerprint = fingerprint;
+        this.source = commands;
+
+        final Set<String> denied = new HashSet<>();
+        for (final CommandInstance command : commands) {
+            final String permission = command.getPermission();
+            if (permission.isEmpty() || this.granted.contains(permission) || denied.contains(permission))
+                continue;
+            (permitted.test(command) ? this.granted : denied).add(permission);
+        }
+
+        // a command is only visible, if its parent is visible as well
+        final Set<CommandInstance> visible = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<CommandInstance> pruned = new ArrayList<>();
+        final List<CommandInstance> roots = new ArrayList<>();
+        for (final CommandInstance command : commands) {
+            final CommandInstance parent = command.getParent();
+            if (!this.isPermitted(command) || (parent != null && !visible.contains(parent)))
+                continue;
+
+            visible.add(command);
+            pruned.add(command);
+            if (parent == null)
+                roots.add(command);
+        }
+        this.commands = Collections.unmodifiableList(pruned);
+        this.roots = Collections.unmodifiableList(roots);
+    }
+
+    /**
+     * Checks if the sources of this view are allowed to execute given {@code command}
+     * itself, regardless of its parents.
+     *
+     * @param command The command, can't be {@code null}
+     *
+     * @return The result. {@code true} if the command has no permission or the sources have it
+     */
+    public boolean isPermitted(final CommandInstance command) {
+        final String permission = command.getPermission();
+        return permission.isEmpty() || this.granted.contains(permission);
+    }
+
+    /**
+     * @return An unmodifiable view of the distinct permissions the sources have
+     */
+    public Set<String> getGranted() {
+        return Collections.unmodifiableSet(this.granted);
+    }
+
+}
@@ -0,0 +1,213 @@
+package dev.volix.lib.brigadier.permission;
+
+import dev.volix.lib.brigadier.Brigadier;
+import dev.volix.lib.brigadier.BrigadierAdapter;
+import dev.volix.lib.brigadier.command.CommandInstance;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+
+/**
+ * Cache of the {@link PermissionView}s of a {@link Brigadier} instance, one per permission
+ * fingerprint supplied by {@link BrigadierAdapter#getPermissionFingerprint(Object)}. Most sources
+ * belong to a handful of permission groups, so the dispatching and the tab completion look their
+ * permissions up in the shared view of their group instead of asking the adapter for every node.
+ * <p>
+ * Views are built lazily with the first source of a fingerprint. The least recently used view is
+ * evicted as soon as the {@link #capacity} is exceeded and every view is dropped when the commands change.
+ * If the permissions of a group change, the platform has to call {@link #invalidate(Object)}; a view
+ * which was being built meanwhile is built again instead of being cached.
+ * <p>
+ * The cache is opt-in: as long as the adapter doesn't supply fingerprints (none of the shipped
+ * adapters does by default), every permission is checked with the adapter directly.
+ *
+ * @author Tobias Büser
+ */
+public class PermissionViews {
+
+    /**
+     * The default maximum amount of cached views
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The access time of a view is only updated after this time, so that
+     * frequent lookups don't write to the view every time
+     */
+    private static final long ACCESS_RESOLUTION = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Brigadier brigadier;
+    private final Map<Object, Entry> views = new ConcurrentHashMap<>();
+
+    /**
+     * The commands the cached views have been built from
+     */
+    private volatile List<CommandInstance> indexedCommands;
+
+    /**
+     * Counts the invalidations, so that a view built concurrently
+     * with one of them isn't cached afterwards
+     */
+    private volatile long generation;
+
+    /**
+     * The maximum amount of cached views
+     */
+    @Getter private volatile int capacity = DEFAULT_CAPACITY;
+
+    public PermissionViews(final Brigadier brigadier) {
+        if(brigadier == null)
+            throw new NullPointerException("brigadier can't be null");
+
+        this.brigadier = brigadier;
+    }
+
+    /**
+     * Gets the view of given {@code commandSource}, which is built if it isn't cached.
+     *
+     * @param commandSource The source, can be {@code null}
+     * @param <S>           The type of the source
+     *
+     * @return The view or {@code null} if the adapter doesn't supply a fingerprint for this source,
+     * in which case the permissions have to be checked with the adapter directly
+     */
+    @SuppressWarnings("unchecked")
+    public <S> PermissionView get(final S commandSource) {
+        final BrigadierAdapter<S> adapter = this.brigadier.getInstanceAdapter();
+        final Object fingerprint = adapter == null ? null : adapter.getPermissionFingerprint(commandSource);
+        if (fingerprint == null)
+            return null;
+
+        final List<CommandInstance> commands = this.brigadier.getCommandsUnwound();
+        if (commands != this.indexedCommands) {
+            this.index(commands);
+        }
+
+        final long now = System.nanoTime();
+        final Entry entry = this.views.get(fingerprint);
+        if (entry != null && entry.view.source == commands) {
+            if (now - entry.lastAccess > ACCESS_RESOLUTION)
+                entry.lastAccess = now;
+            return entry.view;
+        }
+
+        while (true) {
+            final long generation = this.generation;
+            final PermissionView view = new PermissionView(fingerprint, commands, command -> adapter.checkPermission(commandSource, command));
+
+            synchronized (this) {
+                // the view might have been built with the permissions from before an invalidation, build it again
+                if (generation != this.generation)
+                    continue;
+
+                this.views.put(fingerprint, new Entry(view, now));
+            }
+            if (this.views.size() > this.capacity) {
+                this.evict();
+            }
+            return view;
+        }
+    }
+
+    /**
+     * Builds the view of given {@code commandSource} without caching it, e.g. for
+     * sources the adapter doesn't supply a fingerprint for.
+     *
+     * @param commandSource The source, can be {@code null}
+     * @param <S>           The type of the source
+     *
+     * @return The view
+     */
+    @SuppressWarnings("unchecked")
+    public <S> PermissionView build(final S commandSource) {
+        final BrigadierAdapter<S> adapter = this.brigadier.getInstanceAdapter();
+        if(adapter == null)
+            throw new IllegalStateException("no adapter has been set");
+
+        return new PermissionView(null, this.brigadier.getCommandsUnwound(), command -> adapter.checkPermission(commandSource, command));
+    }
+
+    /**
+     * Drops the view of given {@code fingerprint}, e.g. after the permissions of a group changed.
+     * The view is built again with the next source of this fingerprint.
+     *
+     * @param fingerprint The fingerprint, can't be {@code null}
+     */
+    public synchronized void invalidate(final Object fingerprint) {
+        if(fingerprint == null)
+            throw new NullPointerException("fingerprint can't be null");
+
+        this.generation++;
+        this.views.remove(fingerprint);
+    }
+
+    /**
+     * Drops every view
+     */
+    public synchronized void invalidateAll() {
+        this.generation++;
+        this.views.clear();
+    }
+
+    /**
+     * Sets the maximum amount of cached views.
+     *
+     * @param capacity The capacity, has to be positive
+     */
+    public void setCapacity(final int capacity) {
+        if(capacity <= 0)
+            throw new IllegalArgumentException(String.format("capacity has to be positive, you supplied %s", capacity));
+
+        this.capacity = capacity;
+        while (this.views.size() > capacity) {
+            this.evict();
+        }
+    }
+
+    /**
+     * @return The amount of cached views
+     */
+    public int size() {
+        return this.views.size();
+    }
+
+    /**
+     * Drops every view, as the commands changed.
+     */
+    private synchronized void index(final List<CommandInstance> commands) {
+        if (commands == this.indexedCommands)
+            return;
+
+        this.generation++;
+        this.views.clear();
+        this.indexedCommands = commands;
+    }
+
+    /**
+     * Removes the least recently used view.
+     */
+    private void evict() {
+        Map.Entry<Object, Entry> eldest = null;
+        for (final Map.Entry<Object, Entry> entry : this.views.entrySet()) {
+            if (eldest == null || entry.getValue().lastAccess - eldest.getValue().lastAccess < 0)
+                eldest = entry;
+        }
+        if (eldest != null)
+            this.views.remove(eldest.getKey(), eldest.getValue());
+    }
+
+    private static final class Entry {
+
+        private final PermissionView view;
+        private volatile long lastAccess;
+
+        private Entry(final PermissionView view, final long lastAccess) {
+            this.view = view;
+            this.lastAccess = lastAccess;
+        }
+
+    }
+
+}
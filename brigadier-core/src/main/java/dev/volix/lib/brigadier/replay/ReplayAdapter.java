@@ -0,0 +1,54 @@
+package dev.volix.lib.brigadier.replay;
+
+import dev.volix.lib.brigadier.BrigadierAdapter;
+import dev.volix.lib.brigadier.command.CommandInstance;
+import dev.volix.lib.brigadier.context.CommandContext;
+import dev.volix.lib.brigadier.parameter.ParameterSet;
+
+/**
+ * Stub adapter for a {@link TrafficReplay}, which grants every permission and runs asynchronous
+ * commands right away on the replaying thread, so that their execution is part of the measured latency.
+ * Override {@link #checkPermission(Object, CommandInstance)} to replay the permissions as well.
+ *
+ * @param <S> The type of the sources
+ *
+ * @author Tobias Büser
+ */
+public class ReplayAdapter<S> extends BrigadierAdapter<S> {
+
+    private final Class<S> sourceClass;
+
+    public ReplayAdapter(final Class<S> sourceClass) {
+        if(sourceClass == null)
+            throw new NullPointerException("sourceClass can't be null");
+
+        this.sourceClass = sourceClass;
+    }
+
+    @Override
+    public void handleRegister(final String label, final CommandInstance instance) {
+        // nothing to register at a platform
+    }
+
+    @Override
+    public boolean checkPermission(final S commandSource, final CommandInstance command) {
+        return true;
+    }
+
+    @Override
+    public void runAsync(final Runnable runnable) {
+        runnable.run();
+    }
+
+    @Override
+    public Class<S> getCommandSourceClass() {
+        return this.sourceClass;
+    }
+
+    @Override
+    public CommandContext<S> constructCommandContext(final S commandSource, final CommandInstance command, final ParameterSet parameter) {
+        return new CommandContext<S>(commandSource, command, parameter) {
+        };
+    }
+
+}
@@ -0,0 +1,74 @@
+package dev.volix.lib.brigadier.replay;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+
+/**
+ * The throughput and latencies of a {@link TrafficReplay}.
+ *
+ * @author Tobias Büser
+ */
+public class ReplayReport {
+
+    /**
+     * The latencies of every record in nanoseconds, sorted ascending
+     */
+    private final long[] latencies;
+
+    /**
+     * The time from the start of the replay until the last record has been replayed, in nanoseconds
+     */
+    @Getter private final long duration;
+
+    /**
+     * The amount of records, whose result (code or amount of suggestions) differs from the recorded result
+     */
+    @Getter private final long mismatches;
+
+    ReplayReport(final long[] latencies, final long duration, final long mismatches) {
+        this.latencies = latencies.clone();
+        Arrays.sort(this.latencies);
+        this.duration = duration;
+        this.mismatches = mismatches;
+    }
+
+    /**
+     * @return The amount of replayed records
+     */
+    public int getRecords() {
+        return this.latencies.length;
+    }
+
+    /**
+     * @return The replayed records per second
+     */
+    public double getThroughput() {
+        return this.duration == 0 ? 0 : this.latencies.length * (double) TimeUnit.SECONDS.toNanos(1) / this.duration;
+    }
+
+    /**
+     * Gets the latency, which given {@code percentile} of the records didn't exceed.
+     *
+     * @param percentile The percentile between {@code 0} and {@code 100}, e.g. {@code 99.9}
+     *
+     * @return The latency in nanoseconds, {@code 0} if there are no records
+     */
+    public long getPercentile(final double percentile) {
+        if(percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException(String.format("percentile has to be between 0 and 100, you supplied %s", percentile));
+        if (this.latencies.length == 0)
+            return 0;
+
+        final int index = (int) Math.ceil(percentile / 100 * this.latencies.length) - 1;
+        return this.latencies[Math.max(0, Math.min(this.latencies.length - 1, index))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d records in %.1f ms (%.0f/s), %d mismatches, latency p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+            this.getRecords(), this.duration / 1e6, this.getThroughput(), this.mismatches, this.getPercentile(50) / 1e3,
+            this.getPercentile(90) / 1e3, this.getPercentile(99) / 1e3, this.getPercentile(99.9) / 1e3, this.getPercentile(100) / 1e3);
+    }
+
+}
@@ -0,0 +1,300 @@
+package dev.volix.lib.brigadier.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the command traffic of a {@link dev.volix.lib.brigadier.Brigadier} instance as compact
+ * binary stream, which can be replayed with {@link TrafficReplay} to load test brigadier with the
+ * shape of real traffic.
+ * <p>
+ * The stream starts with the {@link #MAGIC}, the {@link #VERSION} and the time the recording started
+ * in milliseconds. Every record consists of its {@link #EXECUTE}/{@link #TAB_COMPLETE} type, the
+ * microseconds since the previous record, the id of the source, the command line and its result
+ * (the ordinal of the {@link dev.volix.lib.brigadier.command.ExecutionResult.Code} or the amount
+ * of suggestions). Every number is written as variable length integer, the line as UTF-8 bytes.
+ * <p>
+ * The dispatching only hands the records over to a bounded queue, a background thread writes them
+ * to the stream. If the queue is full, records are dropped and counted ({@link #getDropped()}).
+ * <p>
+ * Sources are replaced by ids in order of their first appearance ({@code 0} is the {@code null} source).
+ * The sources are only referenced weakly, so a source which is gone (e.g. a player who left) gets a new id
+ * if an equal source appears again. The command lines are recorded as they are though, including
+ * arguments like player names or passwords, so a recording has to be treated as sensitive as the traffic itself.
+ *
+ * @author Tobias Büser
+ * @see dev.volix.lib.brigadier.Brigadier#setTrafficRecorder(TrafficRecorder)
+ */
+public class TrafficRecorder implements AutoCloseable {
+
+    static final int MAGIC = 0x42524754; // BRGT
+    static final int VERSION = 1;
+
+    static final int EXECUTE = 0;
+    static final int TAB_COMPLETE = 1;
+
+    /**
+     * The default amount of records, which can wait for the writer
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * The time the writer waits for new records, before it flushes the stream
+     */
+    private static final long IDLE_MILLIS = 50;
+
+    private final DataOutputStream output;
+    private final BlockingQueue<Record> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * The ids of the sources mapped with the sources, only accessed by the {@link #writer}
+     */
+    private final Map<Object, Integer> sources = new WeakHashMap<>();
+    private int nextSource = 1;
+
+    /**
+     * The time of the last written record, only accessed by the {@link #writer}
+     */
+    private long lastTime;
+
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public TrafficRecorder(final OutputStream output) throws IOException {
+        this(output, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a recording, writes its header to given {@code output} and starts the writer thread.
+     * The stream is closed if the header can't be written.
+     *
+     * @param output   The stream of the recording, can't be {@code null}
+     * @param capacity The amount of records, which can wait for the writer
+     *
+     * @throws IOException If the header can't be written
+     */
+    public TrafficRecorder(final OutputStream output, final int capacity) throws IOException {
+        if(output == null)
+            throw new NullPointerException("output can't be null");
+        if(capacity <= 0)
+            throw new IllegalArgumentException(String.format("capacity has to be positive, you supplied %s", capacity));
+
+        this.output = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        try {
+            this.output.writeInt(MAGIC);
+            this.output.writeByte(VERSION);
+            this.output.writeLong(System.currentTimeMillis());
+        } catch (IOException e) {
+            try {
+                output.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        this.lastTime = System.nanoTime();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        this.writer = new Thread(this::write, "Brigadier Traffic Recorder");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Creates a recording at given {@code file}, which is replaced if it already exists.
+     *
+     * @param file The file
+     *
+     * @throws IOException If the file can't be written
+     */
+    public TrafficRecorder(final Path file) throws IOException {
+        this(Files.newOutputStream(file));
+    }
+
+    /**
+     * Records the execution of a command.
+     *
+     * @param commandSource The source of the command
+     * @param label         The label of the command
+     * @param args          The arguments, can be {@code null} if they are not recorded
+     * @param offset        The index of the first argument inside of {@code args}
+     * @param result        The ordinal of the result code
+     */
+    public void recordExecution(final Object commandSource, final String label, final String[] args, final int offset, final int result) {
+        if (!this.running)
+            return;
+
+        final StringBuilder line = new StringBuilder(label);
+        if (args != null) {
+            for (int i = offset; i < args.length; i++) {
+                line.append(' ').append(args[i]);
+            }
+        }
+        this.record(EXECUTE, commandSource, line.toString(), result);
+    }
+
+    /**
+     * Records a tab completion.
+     *
+     * @param commandSource The source of the tab completion
+     * @param cursor        The whole command line
+     * @param suggestions   The amount of suggestions
+     */
+    public void recordTabCompletion(final Object commandSource, final String cursor, final int suggestions) {
+        this.record(TAB_COMPLETE, commandSource, cursor, suggestions);
+    }
+
+    /**
+     * @return The amount of written records
+     */
+    public long getRecords() {
+        return this.records.get();
+    }
+
+    /**
+     * @return The amount of records, which have been dropped as the queue was full or the recording closed
+     */
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    private void record(final int type, final Object commandSource, final String line, final int result) {
+        if (!this.running)
+            return;
+
+        final Record record = new Record(type, System.nanoTime(), commandSource, line, result);
+        if (!this.queue.offer(record)) {
+            this.dropped.incrementAndGet();
+            return;
+        }
+
+        // the writer might have taken the last records already, so take this one back if it's still there
+        if (!this.running && this.queue.remove(record))
+            this.dropped.incrementAndGet();
+    }
+
+    /**
+     * Stops accepting records, writes every queued record and closes the recording.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.running)
+            return;
+
+        // the writer isn't interrupted, as that would close an interruptible channel of the stream
+        this.running = false;
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The loop of the {@link #writer}, which runs until the recording is closed and the queue is empty.
+     */
+    private void write() {
+        final List<Record> batch = new ArrayList<>();
+        try {
+            while (true) {
+                final boolean running = this.running;
+                if (this.queue.drainTo(batch) == 0) {
+                    if (!running)
+                        break;
+
+                    this.output.flush();
+                    try {
+                        final Record record = this.queue.poll(IDLE_MILLIS, TimeUnit.MILLISECONDS);
+                        if (record != null)
+                            batch.add(record);
+                    } catch (InterruptedException e) {
+                        // somebody else stopped the writer, the queued records can't be written anymore
+                        this.running = false;
+                        this.dropped.addAndGet(this.queue.size());
+                        this.queue.clear();
+                        break;
+                    }
+                }
+
+                for (final Record record : batch) {
+                    this.write(record);
+                }
+                this.records.addAndGet(batch.size());
+                batch.clear();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            this.running = false;
+            this.dropped.addAndGet(batch.size() + this.queue.size());
+            this.queue.clear();
+        } finally {
+            try {
+                this.output.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void write(final Record record) throws IOException {
+        final int source = record.source == null ? 0
+            : this.sources.computeIfAbsent(record.source, key -> this.nextSource++);
+        final byte[] bytes = record.line.getBytes(StandardCharsets.UTF_8);
+
+        this.output.writeByte(record.type);
+        writeVarLong(this.output, Math.max(0, TimeUnit.NANOSECONDS.toMicros(record.time - this.lastTime)));
+        writeVarLong(this.output, source);
+        writeVarLong(this.output, bytes.length);
+        this.output.write(bytes);
+        writeVarLong(this.output, record.result);
+
+        // the time is only advanced by whole microseconds, so that no time gets lost
+        if (record.time - this.lastTime > 0)
+            this.lastTime += TimeUnit.MICROSECONDS.toNanos(TimeUnit.NANOSECONDS.toMicros(record.time - this.lastTime));
+    }
+
+    static void writeVarLong(final DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    /**
+     * One record waiting for the writer.
+     */
+    private static final class Record {
+
+        private final int type;
+        private final long time;
+        private final Object source;
+        private final String line;
+        private final int result;
+
+        private Record(final int type, final long time, final Object source, final String line, final int result) {
+            this.type = type;
+            this.time = time;
+            this.source = source;
+            this.line = line;
+            this.result = result;
+        }
+
+    }
+
+}
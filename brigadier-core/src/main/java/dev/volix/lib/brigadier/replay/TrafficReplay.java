@@ -0,0 +1,279 @@
+package dev.volix.lib.brigadier.replay;
+
+import dev.volix.lib.brigadier.Brigadier;
+import dev.volix.lib.brigadier.command.ExecutionResult;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import lombok.Getter;
+
+/**
+ * Replays a recording of a {@link TrafficRecorder} against a {@link Brigadier} instance, e.g. one
+ * using a {@link ReplayAdapter}, and measures the latency of every command and tab completion.
+ * <p>
+ * The records are distributed over the threads by their source, so that the records of one source
+ * are replayed in order by the same thread. With a speed greater than {@code 0} every record is
+ * replayed at its original time divided by the speed, and its latency is measured from that time on,
+ * so that a stalled thread can't hide the latency of the records it delays. Otherwise the records
+ * are replayed as fast as possible.
+ *
+ * @author Tobias Büser
+ */
+public class TrafficReplay {
+
+    @Getter private final long recordingStart;
+
+    private final byte[] types;
+    private final long[] times;
+    private final int[] sources;
+    private final String[] lines;
+    private final int[] results;
+
+    /**
+     * The lines of the executions split into label and arguments, so that the replay
+     * passes them just like a platform does
+     */
+    private final String[][] arguments;
+
+    private TrafficReplay(final long recordingStart, final List<Object[]> records) {
+        this.recordingStart = recordingStart;
+        this.types = new byte[records.size()];
+        this.times = new long[records.size()];
+        this.sources = new int[records.size()];
+        this.lines = new String[records.size()];
+        this.results = new int[records.size()];
+        this.arguments = new String[records.size()][];
+
+        for (int i = 0; i < records.size(); i++) {
+            final Object[] record = records.get(i);
+            this.types[i] = (byte) record[0];
+            this.times[i] = (long) record[1];
+            this.sources[i] = (int) record[2];
+            this.lines[i] = (String) record[3];
+            this.results[i] = (int) record[4];
+            if (this.types[i] == TrafficRecorder.EXECUTE) {
+                this.arguments[i] = this.lines[i].split(" ", -1);
+            }
+        }
+    }
+
+    /**
+     * Reads a recording of a {@link TrafficRecorder}.
+     *
+     * @param input The stream of the recording, which is not closed
+     *
+     * @return The replay
+     *
+     * @throws IOException If the stream can't be read or doesn't contain a recording
+     */
+    public static TrafficReplay read(final InputStream input) throws IOException {
+        final DataInputStream data = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        if (data.readInt() != TrafficRecorder.MAGIC)
+            throw new IOException("not a traffic recording");
+        final int version = data.readUnsignedByte();
+        if (version != TrafficRecorder.VERSION)
+            throw new IOException(String.format("unsupported version %s of the traffic recording", version));
+        final long start = data.readLong();
+
+        final List<Object[]> records = new ArrayList<>();
+        long time = 0;
+        while (true) {
+            final int type = data.read();
+            if (type < 0)
+                break;
+
+            try {
+                time += TimeUnit.MICROSECONDS.toNanos(readVarLong(data));
+                final int source = (int) readVarLong(data);
+                final byte[] bytes = new byte[(int) readVarLong(data)];
+                data.readFully(bytes);
+                final int result = (int) readVarLong(data);
+                records.add(new Object[] { (byte) type, time, source, new String(bytes, StandardCharsets.UTF_8), result });
+            } catch (EOFException e) {
+                // the recording hasn't been closed properly, the last record is incomplete
+                break;
+            }
+        }
+        return new TrafficReplay(start, records);
+    }
+
+    /**
+     * Reads the recording at given {@code file}.
+     *
+     * @see #read(InputStream)
+     */
+    public static TrafficReplay read(final Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return read(input);
+        }
+    }
+
+    /**
+     * @return The amount of records
+     */
+    public int size() {
+        return this.lines.length;
+    }
+
+    /**
+     * @return The time between the first and the last record in nanoseconds
+     */
+    public long getRecordedDuration() {
+        return this.times.length == 0 ? 0 : this.times[this.times.length - 1] - this.times[0];
+    }
+
+    /**
+     * Replays every record against given {@code brigadier}.
+     *
+     * @param brigadier The instance to replay the records with, including its registered commands
+     * @param sources   Creates the source of every recorded source id, called once per id
+     * @param threads   The amount of threads replaying the records
+     * @param speed     The factor of the original speed (e.g. {@code 10} for ten times as fast),
+     *                  {@code 0} to replay as fast as possible
+     * @param <S>       The type of the sources
+     *
+     * @return The report of the replay
+     *
+     * @throws InterruptedException If the current thread has been interrupted while waiting for the replay
+     */
+    public <S> ReplayReport replay(final Brigadier brigadier, final IntFunction<S> sources, final int threads,
+                                   final double speed) throws InterruptedException {
+        if(brigadier == null)
+            throw new NullPointerException("brigadier can't be null");
+        if(sources == null)
+            throw new NullPointerException("sources can't be null");
+        if(threads <= 0)
+            throw new IllegalArgumentException(String.format("threads has to be positive, you supplied %s", threads));
+        if(speed < 0 || Double.isNaN(speed))
+            throw new IllegalArgumentException(String.format("speed can't be negative, you supplied %s", speed));
+
+        // the sources are created before the replay, so that their creation isn't measured
+        final List<S> resolved = new ArrayList<>();
+        for (final int source : this.sources) {
+            while (resolved.size() <= source) {
+                resolved.add(null);
+            }
+            if (resolved.get(source) == null && source != 0)
+                resolved.set(source, sources.apply(source));
+        }
+
+        final int[][] partitions = this.partition(threads);
+        final long[] latencies = new long[this.size()];
+        final AtomicLong mismatches = new AtomicLong();
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final long[] begin = new long[1];
+        final Throwable[] failure = new Throwable[1];
+
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int[] records = partitions[t];
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    ready.await();
+                    synchronized (begin) {
+                        if (begin[0] == 0)
+                            begin[0] = System.nanoTime();
+                    }
+                    this.replay(brigadier, resolved, records, begin[0], speed, latencies, mismatches);
+                } catch (Throwable throwable) {
+                    synchronized (failure) {
+                        failure[0] = throwable;
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "Brigadier Replay #" + t);
+            workers[t].start();
+        }
+        done.await();
+        final long duration = System.nanoTime() - begin[0];
+
+        if (failure[0] != null)
+            throw new IllegalStateException("the replay failed", failure[0]);
+        return new ReplayReport(latencies, duration, mismatches.get());
+    }
+
+    /**
+     * Replays the {@code records} of one thread.
+     */
+    @SuppressWarnings("unchecked")
+    private <S> void replay(final Brigadier brigadier, final List<S> sources, final int[] records, final long begin,
+                            final double speed, final long[] latencies, final AtomicLong mismatches) {
+        final long first = this.times.length == 0 ? 0 : this.times[0];
+        for (final int record : records) {
+            long start = System.nanoTime();
+            if (speed > 0) {
+                // the record is due at its original time, even if this thread is late
+                final long due = begin + (long) ((this.times[record] - first) / speed);
+                while (start < due) {
+                    LockSupport.parkNanos(due - start);
+                    start = System.nanoTime();
+                }
+                start = due;
+            }
+
+            final S source = sources.get(this.sources[record]);
+            final int result;
+            if (this.types[record] == TrafficRecorder.EXECUTE) {
+                final String[] arguments = this.arguments[record];
+                final ExecutionResult<S> executed = brigadier.executeCommand(source, arguments[0], arguments, 1);
+                result = executed.getResult().ordinal();
+            } else {
+                result = brigadier.executeTabCompletion(source, this.lines[record]).size();
+            }
+            latencies[record] = System.nanoTime() - start;
+
+            if (result != this.results[record])
+                mismatches.incrementAndGet();
+        }
+    }
+
+    /**
+     * Distributes the records over given amount of {@code threads} by their source.
+     *
+     * @return The indices of the records per thread in order of their time
+     */
+    private int[][] partition(final int threads) {
+        final int[] sizes = new int[threads];
+        for (final int source : this.sources) {
+            sizes[source % threads]++;
+        }
+
+        final int[][] partitions = new int[threads][];
+        for (int t = 0; t < threads; t++) {
+            partitions[t] = new int[sizes[t]];
+            sizes[t] = 0;
+        }
+        for (int i = 0; i < this.sources.length; i++) {
+            final int thread = this.sources[i] % threads;
+            partitions[thread][sizes[thread]++] = i;
+        }
+        return partitions;
+    }
+
+    private static long readVarLong(final DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = data.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("malformed variable length integer");
+    }
+
+}
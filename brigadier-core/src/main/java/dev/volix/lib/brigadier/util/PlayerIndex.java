@@ -0,0 +1,206 @@
+package dev.volix.lib.brigadier.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Index of every player currently online, mapped with their case insensitive
+ * name and their unique id.
+ * The index itself doesn't know when players join or quit, it has to be
+ * maintained by the platform adapter (e.g. with a join and quit listener).
+ * Lookups are lock free and don't touch the platform at all.
+ * <p>
+ * The names are additionally stored inside of a {@link PrefixTrie}, so that
+ * player names can be tab completed without iterating every online player.
+ *
+ * @param <P> The type of the player
+ *
+ * @author Tobias Büser
+ */
+public class PlayerIndex<P> {
+
+    private final Function<P, String> nameFunction;
+    private final Function<P, UUID> uniqueIdFunction;
+
+    /**
+     * The lower cased names mapped with their respective player
+     */
+    private final Map<String, P> byName = new ConcurrentHashMap<>();
+
+    /**
+     * The unique ids mapped with their respective player
+     */
+    private final Map<UUID, P> byUniqueId = new ConcurrentHashMap<>();
+
+    /**
+     * The names of the players for prefix searches
+     */
+    private final PrefixTrie<P> names = new PrefixTrie<>();
+
+    public PlayerIndex(final Function<P, String> nameFunction, final Function<P, UUID> uniqueIdFunction) {
+        if(nameFunction == null)
+            throw new NullPointerException("nameFunction can't be null");
+        if(uniqueIdFunction == null)
+            throw new NullPointerException("uniqueIdFunction can't be null");
+
+        this.nameFunction = nameFunction;
+        this.uniqueIdFunction = uniqueIdFunction;
+    }
+
+    /**
+     * Adds given {@code player} to the index.
+     * If another player with the same name or unique id is already indexed,
+     * it will be replaced.
+     *
+     * @param player The player, can't be {@code null}
+     *
+     * @throws NullPointerException If the {@code player} is {@code null}
+     */
+    public void add(final P player) {
+        if(player == null)
+            throw new NullPointerException("player can't be null");
+
+        final String name = this.nameFunction.apply(player);
+        final P previous = this.byName.put(name.toLowerCase(Locale.ROOT), player);
+        if (previous != null && previous != player)
+            this.names.remove(this.nameFunction.apply(previous), previous);
+        if (previous != player)
+            this.names.put(name, player);
+        this.byUniqueId.put(this.uniqueIdFunction.apply(player), player);
+    }
+
+    /**
+     * Removes given {@code player} from the index.
+     * The entries are only removed if they still belong to this exact player,
+     * so that a quick reconnect can't remove the new entry.
+     *
+     * @param player The player, can't be {@code null}
+     *
+     * @throws NullPointerException If the {@code player} is {@code null}
+     */
+    public void remove(final P player) {
+        if(player == null)
+            throw new NullPointerException("player can't be null");
+
+        final String name = this.nameFunction.apply(player);
+        if (this.byName.remove(name.toLowerCase(Locale.ROOT), player))
+            this.names.remove(name, player);
+        this.byUniqueId.remove(this.uniqueIdFunction.apply(player), player);
+    }
+
+    /**
+     * Gets an indexed player either by their unique id or their name.
+     * If the string is not syntactically a unique id ({@link #isUniqueId(String)}),
+     * it won't be parsed as one at all.
+     *
+     * @param nameOrUniqueId The name (case insensitive) or the unique id of the player
+     *
+     * @return The player or {@code null} if not online
+     */
+    public P get(final String nameOrUniqueId) {
+        if (nameOrUniqueId == null || nameOrUniqueId.isEmpty())
+            return null;
+
+        if (isUniqueId(nameOrUniqueId)) {
+            final P player = this.byUniqueId.get(UUID.fromString(nameOrUniqueId));
+            if (player != null)
+                return player;
+        }
+        return this.getByName(nameOrUniqueId);
+    }
+
+    /**
+     * @param name The name of the player, case insensitive
+     *
+     * @return The player or {@code null} if not online
+     */
+    public P getByName(final String name) {
+        if (name == null)
+            return null;
+        return this.byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param uniqueId The unique id of the player
+     *
+     * @return The player or {@code null} if not online
+     */
+    public P getByUniqueId(final UUID uniqueId) {
+        if (uniqueId == null)
+            return null;
+        return this.byUniqueId.get(uniqueId);
+    }
+
+    /**
+     * Gets the names of every indexed player starting with given {@code prefix}.
+     *
+     * @param prefix The prefix, case insensitive. Every player if {@code null} or empty
+     * @param filter The filter, e.g. if the player is visible for the source, can be {@code null}
+     * @param limit  The maximum amount of names
+     *
+     * @return The names in alphabetical order
+     */
+    public List<String> complete(final String prefix, final Predicate<P> filter, final int limit) {
+        return this.names.find(prefix, filter, limit).stream().map(this.nameFunction).collect(Collectors.toList());
+    }
+
+    public List<String> complete(final String prefix, final Predicate<P> filter) {
+        return this.complete(prefix, filter, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return An unmodifiable view of every indexed player
+     */
+    public Collection<P> getPlayers() {
+        return Collections.unmodifiableCollection(this.byUniqueId.values());
+    }
+
+    /**
+     * @return The amount of indexed players
+     */
+    public int size() {
+        return this.byUniqueId.size();
+    }
+
+    /**
+     * Removes every player from the index.
+     */
+    public void clear() {
+        this.byName.clear();
+        this.byUniqueId.clear();
+        this.names.clear();
+    }
+
+    /**
+     * Checks if given {@code string} has the syntax of an {@link UUID}
+     * (e.g. {@code 069a79f4-44e9-4726-a5be-fca90e38aaf5}) without
+     * parsing it.
+     *
+     * @param string The string to check, can be {@code null}
+     *
+     * @return The result. {@code true} if {@link UUID#fromString(String)} would accept it.
+     */
+    public static boolean isUniqueId(final String string) {
+        if (string == null || string.length() != 36)
+            return false;
+
+        for (int i = 0; i < 36; i++) {
+            final char c = string.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,197 @@
+package dev.volix.lib.brigadier.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * A case insensitive prefix tree, which maps string keys to values.
+ * Searching every value with a given prefix only costs the length of the prefix
+ * plus the size of the found subtree, instead of iterating every key.
+ * <p>
+ * The trie can be updated incrementally and is safe to use from multiple threads,
+ * as writes and reads are guarded by a {@link ReadWriteLock}.
+ *
+ * @param <V> The type of the values
+ *
+ * @author Tobias Büser
+ */
+public class PrefixTrie<V> {
+
+    private final Node<V> root = new Node<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size = 0;
+
+    /**
+     * Puts given {@code value} with given {@code key} into the trie.
+     * Multiple values can be stored with the same key.
+     *
+     * @param key   The key, case insensitive, can't be {@code null}
+     * @param value The value, can't be {@code null}
+     *
+     * @throws NullPointerException If the {@code key} or the {@code value} is {@code null}
+     */
+    public void put(final String key, final V value) {
+        if(key == null)
+            throw new NullPointerException("key can't be null");
+        if(value == null)
+            throw new NullPointerException("value can't be null");
+
+        this.lock.writeLock().lock();
+        try {
+            Node<V> node = this.root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(Character.toLowerCase(key.charAt(i)), c -> new Node<>());
+            }
+            node.values.add(value);
+            this.size++;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes given {@code value} stored with given {@code key}.
+     * Nodes which are empty afterwards will be removed as well.
+     *
+     * @param key   The key, case insensitive, can't be {@code null}
+     * @param value The value, can't be {@code null}
+     *
+     * @return The result. {@code true} if the value was stored in the trie.
+     *
+     * @throws NullPointerException If the {@code key} or the {@code value} is {@code null}
+     */
+    public boolean remove(final String key, final V value) {
+        if(key == null)
+            throw new NullPointerException("key can't be null");
+        if(value == null)
+            throw new NullPointerException("value can't be null");
+
+        this.lock.writeLock().lock();
+        try {
+            final List<Node<V>> path = new ArrayList<>(key.length() + 1);
+            Node<V> node = this.root;
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.get(Character.toLowerCase(key.charAt(i)));
+                if (node == null)
+                    return false;
+                path.add(node);
+            }
+            if (!node.values.remove(value))
+                return false;
+            this.size--;
+
+            // prune the empty nodes from the bottom up
+            for (int i = path.size() - 1; i > 0; i--) {
+                final Node<V> current = path.get(i);
+                if (!current.values.isEmpty() || !current.children.isEmpty())
+                    break;
+                path.get(i - 1).children.remove(Character.toLowerCase(key.charAt(i - 1)));
+            }
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets every value whose key starts with given {@code prefix} in alphabetical
+     * order of their keys.
+     *
+     * @param prefix The prefix, case insensitive. Every value if {@code null} or empty
+     * @param filter The filter every value has to pass, can be {@code null}
+     * @param limit  The maximum amount of values to return
+     *
+     * @return The found values. Empty if nothing has been found
+     */
+    public List<V> find(final String prefix, final Predicate<V> filter, final int limit) {
+        final List<V> result = new ArrayList<>();
+        if (limit <= 0)
+            return result;
+
+        this.lock.readLock().lock();
+        try {
+            Node<V> node = this.root;
+            if (prefix != null) {
+                for (int i = 0; i < prefix.length() && node != null; i++) {
+                    node = node.children.get(Character.toLowerCase(prefix.charAt(i)));
+                }
+            }
+            if (node != null)
+                collect(node, filter, limit, result);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public List<V> find(final String prefix, final Predicate<V> filter) {
+        return this.find(prefix, filter, Integer.MAX_VALUE);
+    }
+
+    public List<V> find(final String prefix) {
+        return this.find(prefix, null);
+    }
+
+    /**
+     * @return The amount of values stored in the trie
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every value from the trie.
+     */
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.root.children.clear();
+            this.root.values.clear();
+            this.size = 0;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Collects the values of given {@code node} and its subtree depth first.
+     *
+     * @return The result. {@code false} if the limit has been reached.
+     */
+    private static <V> boolean collect(final Node<V> node, final Predicate<V> filter, final int limit, final List<V> result) {
+        for (final V value : node.values) {
+            if (filter != null && !filter.test(value))
+                continue;
+            result.add(value);
+            if (result.size() >= limit)
+                return false;
+        }
+        for (final Node<V> child : node.children.values()) {
+            if (!collect(child, filter, limit, result))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * One node of the trie, representing one character of the key.
+     */
+    private static final class Node<V> {
+
+        private final Map<Character, Node<V>> children = new TreeMap<>();
+        private final List<V> values = new ArrayList<>(1);
+
+    }
+
+}
@@ -0,0 +1,167 @@
+package dev.volix.lib.brigadier.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash map, which counts every modification, so that indices built from its
+ * content can notice that they are outdated, even if the size didn't change
+ * (e.g. a value has been replaced). Modifications through the views and their
+ * iterators are counted as well.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ *
+ * @author Tobias Büser
+ */
+public class VersionedMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> map = new HashMap<>();
+    private final Set<Entry<K, V>> entrySet = new EntrySet();
+
+    /**
+     * The amount of modifications so far
+     */
+    private volatile int version;
+
+    /**
+     * @return The amount of modifications so far, changes with every modification
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public V get(final Object key) {
+        return this.map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.map.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return this.map.size();
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        final V previous = this.map.put(key, value);
+        this.version++;
+        return previous;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        if (!this.map.containsKey(key))
+            return null;
+
+        final V previous = this.map.remove(key);
+        this.version++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (this.map.isEmpty())
+            return;
+
+        this.map.clear();
+        this.version++;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return this.entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            final Iterator<Entry<K, V>> iterator = VersionedMap.this.map.entrySet().iterator();
+            return new Iterator<Entry<K, V>>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    return new VersionedEntry<>(VersionedMap.this, iterator.next());
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    VersionedMap.this.version++;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return VersionedMap.this.map.size();
+        }
+
+        @Override
+        public void clear() {
+            VersionedMap.this.clear();
+        }
+
+    }
+
+    /**
+     * Entry of the map, which counts replacing its value as modification.
+     */
+    private static final class VersionedEntry<K, V> implements Entry<K, V> {
+
+        private final VersionedMap<K, V> map;
+        private final Entry<K, V> entry;
+
+        private VersionedEntry(final VersionedMap<K, V> map, final Entry<K, V> entry) {
+            this.map = map;
+            this.entry = entry;
+        }
+
+        @Override
+        public K getKey() {
+            return this.entry.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return this.entry.getValue();
+        }
+
+        @Override
+        public V setValue(final V value) {
+            final V previous = this.entry.setValue(value);
+            this.map.version++;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return this.entry.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.entry.toString();
+        }
+
+    }
+
+}
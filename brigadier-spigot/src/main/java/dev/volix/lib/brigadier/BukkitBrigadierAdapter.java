@@ -1,9 +1,11 @@
 package dev.volix.lib.brigadier;
 
 import java.util.List;
+import java.util.function.Function;
 import dev.volix.lib.brigadier.command.CommandInstance;
 import dev.volix.lib.brigadier.context.CommandContext;
 import dev.volix.lib.brigadier.parameter.ParameterSet;
+import lombok.Setter;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.defaults.BukkitCommand;
@@ -14,20 +16,47 @@ import org.bukkit.craftbukkit.v1_12_R1.CraftServer;
  */
 public class BukkitBrigadierAdapter extends BrigadierAdapter<CommandSender> {
 
+    private final BukkitSyncQueue syncQueue;
+
+    /**
+     * Supplies the permission fingerprint of a sender, e.g. the primary group of the permission plugin.
+     * Bukkit has no notion of permission groups, so it isn't set by default and every permission is checked
+     * with the sender. Only set it if senders with the same fingerprint have the same permissions, and call
+     * {@link dev.volix.lib.brigadier.permission.PermissionViews#invalidate(Object)} after a group changed.
+     */
+    @Setter private Function<CommandSender, Object> permissionFingerprint;
+
+    /**
+     * Creates an adapter without a {@link BukkitSyncQueue}, which schedules
+     * {@link #runSync(Runnable)} off the main thread as a plain task of the next tick.
+     */
+    public BukkitBrigadierAdapter() {
+        this.syncQueue = null;
+    }
+
+    /**
+     * @param syncQueue The queue {@link #runSync(Runnable)} enqueues into off the main thread, can't be {@code null}
+     */
+    public BukkitBrigadierAdapter(final BukkitSyncQueue syncQueue) {
+        if(syncQueue == null)
+            throw new NullPointerException("syncQueue can't be null");
+
+        this.syncQueue = syncQueue;
+    }
+
     @Override
     public void handleRegister(final String label, final CommandInstance instance) {
         ((CraftServer) Bukkit.getServer()).getCommandMap().register(label, new BukkitCommand(instance.getLabel(), instance.getDescription(),
             instance.getUsage().getBase(), instance.getAliases()) {
             @Override
             public boolean execute(final CommandSender sender, final String label, final String[] args) {
-                Brigadier.getInstance().executeCommand(sender, label, args);
+                instance.getBrigadier().executeCommand(sender, label, args, 0);
                 return true;
             }
 
             @Override
             public List<String> tabComplete(final CommandSender sender, final String alias, final String[] args) throws IllegalArgumentException {
-                return Brigadier.getInstance().executeTabCompletion(sender,
-                    this.getLabel() + " " + String.join(" ", args));
+                return instance.getBrigadier().executeTabCompletion(sender, this.getLabel(), args, 0);
             }
         });
     }
@@ -37,11 +66,35 @@ public class BukkitBrigadierAdapter extends BrigadierAdapter<CommandSender> {
         return commandSource.hasPermission(command.getPermission());
     }
 
+    @Override
+    public Object getPermissionFingerprint(final CommandSender commandSource) {
+        final Function<CommandSender, Object> fingerprint = this.permissionFingerprint;
+        return fingerprint == null ? null : fingerprint.apply(commandSource);
+    }
+
     @Override
     public void runAsync(final Runnable runnable) {
         Bukkit.getScheduler().runTaskAsynchronously(BukkitBrigadierPlugin.getInstance(), runnable);
     }
 
+    /**
+     * Runs given {@code runnable} right away on the main thread, otherwise enqueues it
+     * into the {@link BukkitSyncQueue}, which runs it within the budget of one of the next ticks.
+     * Without a queue it is scheduled as a task of the next tick.
+     *
+     * @throws IllegalStateException If the queue has been closed, as the plugin is disabled
+     */
+    @Override
+    public void runSync(final Runnable runnable) {
+        if (Bukkit.isPrimaryThread()) {
+            runnable.run();
+        } else if (this.syncQueue == null) {
+            Bukkit.getScheduler().runTask(BukkitBrigadierPlugin.getInstance(), runnable);
+        } else {
+            this.syncQueue.enqueue(runnable);
+        }
+    }
+
     @Override
     public Class<CommandSender> getCommandSourceClass() {
         return CommandSender.class;
@@ -1,6 +1,9 @@
 package dev.volix.lib.brigadier;
 
+import dev.volix.lib.brigadier.util.PlayerIndex;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 /**
@@ -10,12 +13,45 @@ public class BukkitBrigadierPlugin extends JavaPlugin {
 
     @Getter private static BukkitBrigadierPlugin instance;
 
+    /**
+     * Index of every online player, maintained by the {@link BukkitPlayerListener}
+     */
+    @Getter private final PlayerIndex<Player> playerIndex = new PlayerIndex<>(Player::getName, Player::getUniqueId);
+
+    /**
+     * Queue of the tasks which have to run on the main thread, drained every tick
+     */
+    @Getter private BukkitSyncQueue syncQueue;
+
     @Override
     public void onEnable() {
         instance = this;
 
-        Brigadier.getInstance().setAdapter(new BukkitBrigadierAdapter());
-        Brigadier.getInstance().registerTypes(new PlayerParameterType());
+        // players can already be online if the plugin got reloaded
+        this.getServer().getOnlinePlayers().forEach(this.playerIndex::add);
+        this.getServer().getPluginManager().registerEvents(new BukkitPlayerListener(this.playerIndex), this);
+
+        // a closed queue stays closed, so every enable gets a new one
+        this.syncQueue = new BukkitSyncQueue();
+        final long defaultBudget = TimeUnit.NANOSECONDS.toMicros(BukkitSyncQueue.DEFAULT_BUDGET);
+        final long budget = this.getConfig().getLong("sync-queue-budget-micros", defaultBudget);
+        if (budget > 0) {
+            this.syncQueue.setBudget(budget, TimeUnit.MICROSECONDS);
+        } else {
+            this.getLogger().warning(String.format("sync-queue-budget-micros has to be positive, you supplied %s, using %s", budget, defaultBudget));
+        }
+        this.getServer().getScheduler().runTaskTimer(this, this.syncQueue, 1, 1);
+
+        Brigadier.getInstance().setAdapter(new BukkitBrigadierAdapter(this.syncQueue));
+        Brigadier.getInstance().registerTypes(new PlayerParameterType(this.playerIndex));
+    }
+
+    @Override
+    public void onDisable() {
+        this.playerIndex.clear();
+
+        // the scheduler is stopped with the plugin, so nothing queued may be left behind
+        this.syncQueue.close();
     }
 
 }
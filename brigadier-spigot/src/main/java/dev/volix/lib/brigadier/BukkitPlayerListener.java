@@ -0,0 +1,35 @@
+package dev.volix.lib.brigadier;
+
+import dev.volix.lib.brigadier.util.PlayerIndex;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Keeps the {@link PlayerIndex} up to date with the players joining
+ * and quitting the server.
+ *
+ * @author Tobias Büser
+ */
+public class BukkitPlayerListener implements Listener {
+
+    private final PlayerIndex<Player> playerIndex;
+
+    public BukkitPlayerListener(final PlayerIndex<Player> playerIndex) {
+        this.playerIndex = playerIndex;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(final PlayerJoinEvent event) {
+        this.playerIndex.add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(final PlayerQuitEvent event) {
+        this.playerIndex.remove(event.getPlayer());
+    }
+
+}
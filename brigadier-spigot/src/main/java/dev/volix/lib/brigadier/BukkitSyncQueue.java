@@ -0,0 +1,206 @@
+package dev.volix.lib.brigadier;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * Queue of tasks which have to run on the main thread, e.g. commands arriving from async chat,
+ * RCON or a proxy. It is drained once per tick by the scheduler of the {@link BukkitBrigadierPlugin},
+ * but only until the {@link #getBudget() budget} of the tick is used up, the remaining tasks are
+ * carried over to the next tick. At least one task runs per tick, so that a task exceeding the
+ * budget on its own can't stall the queue.
+ * <p>
+ * Once the queue has been {@link #close() closed}, no scheduler drains it anymore, so
+ * tasks enqueued afterwards are rejected instead of being left behind silently.
+ *
+ * @author Tobias Büser
+ */
+public class BukkitSyncQueue implements Runnable {
+
+    /**
+     * The default budget per tick in nanoseconds, a tenth of the 50 ms tick
+     */
+    public static final long DEFAULT_BUDGET = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The amount of tasks in the queue, as {@link ConcurrentLinkedQueue#size()} is linear
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+
+    /**
+     * The time per tick the tasks may take, in nanoseconds
+     */
+    @Getter private volatile long budget = DEFAULT_BUDGET;
+
+    /**
+     * The amount of tasks, which ran
+     */
+    private final LongAdder executed = new LongAdder();
+
+    /**
+     * The summed up time the executed tasks waited in the queue, in nanoseconds
+     */
+    private final LongAdder totalWait = new LongAdder();
+
+    /**
+     * The longest time an executed task waited in the queue, in nanoseconds
+     */
+    @Getter private volatile long maxWait;
+
+    /**
+     * The amount of ticks, after which tasks were left in the queue
+     */
+    @Getter private volatile long carriedOverTicks;
+
+    /**
+     * If the queue rejects new tasks
+     */
+    @Getter private volatile boolean closed;
+
+    /**
+     * Sets the time per tick the tasks may take.
+     *
+     * @param budget The budget, has to be positive
+     * @param unit   The unit of the budget
+     */
+    public void setBudget(final long budget, final TimeUnit unit) {
+        if(unit == null)
+            throw new NullPointerException("unit can't be null");
+        if(budget <= 0)
+            throw new IllegalArgumentException(String.format("budget has to be positive, you supplied %s", budget));
+
+        this.budget = unit.toNanos(budget);
+    }
+
+    /**
+     * Enqueues given {@code runnable} to run on the main thread during one of the next ticks.
+     * Tasks run in the order they have been enqueued.
+     *
+     * @param runnable The task to run
+     *
+     * @throws IllegalStateException If the queue has been closed
+     */
+    public void enqueue(final Runnable runnable) {
+        if(runnable == null)
+            throw new NullPointerException("runnable can't be null");
+        if(this.closed)
+            throw new IllegalStateException("the queue has been closed");
+
+        final Task task = new Task(runnable, System.nanoTime());
+        this.tasks.add(task);
+        this.depth.incrementAndGet();
+
+        // closed meanwhile, the task is either run by the final drain or still queued and rejected
+        if (this.closed && this.tasks.remove(task)) {
+            this.depth.decrementAndGet();
+            throw new IllegalStateException("the queue has been closed");
+        }
+    }
+
+    /**
+     * Runs the queued tasks until the budget is used up. Called once per tick on the main thread.
+     */
+    @Override
+    public void run() {
+        final long start = System.nanoTime();
+        final long budget = this.budget;
+
+        long now = start;
+        Task task;
+        while ((task = this.tasks.poll()) != null) {
+            this.depth.decrementAndGet();
+            this.execute(task, now);
+
+            now = System.nanoTime();
+            if (now - start >= budget)
+                break;
+        }
+
+        if (this.depth.get() > 0)
+            this.carriedOverTicks++;
+    }
+
+    /**
+     * Rejects every further task and runs the queued ones regardless of the budget,
+     * e.g. when the plugin is disabled. Called on the main thread.
+     */
+    public void close() {
+        this.closed = true;
+        this.drain();
+    }
+
+    /**
+     * Runs every queued task regardless of the budget.
+     */
+    public void drain() {
+        Task task;
+        while ((task = this.tasks.poll()) != null) {
+            this.depth.decrementAndGet();
+            this.execute(task, System.nanoTime());
+        }
+    }
+
+    private void execute(final Task task, final long now) {
+        final long wait = now - task.enqueued;
+        this.totalWait.add(wait);
+        if (wait > this.maxWait)
+            this.maxWait = wait;
+        this.executed.increment();
+
+        try {
+            task.runnable.run();
+        } catch (final Throwable throwable) {
+            // one failing task mustn't drop the others of this tick
+            throwable.printStackTrace();
+        }
+    }
+
+    /**
+     * @return The amount of tasks waiting in the queue
+     */
+    public int getDepth() {
+        return this.depth.get();
+    }
+
+    /**
+     * @return The amount of tasks, which ran
+     */
+    public long getExecuted() {
+        return this.executed.sum();
+    }
+
+    /**
+     * @return The average time the executed tasks waited in the queue in nanoseconds, {@code 0} if none ran yet
+     */
+    public long getAverageWait() {
+        final long executed = this.executed.sum();
+        return executed == 0 ? 0 : this.totalWait.sum() / executed;
+    }
+
+    /**
+     * @return The time the oldest task in the queue is waiting in nanoseconds, {@code 0} if the queue is empty
+     */
+    public long getOldestWait() {
+        final Task task = this.tasks.peek();
+        return task == null ? 0 : System.nanoTime() - task.enqueued;
+    }
+
+    private static final class Task {
+
+        private final Runnable runnable;
+        private final long enqueued;
+
+        private Task(final Runnable runnable, final long enqueued) {
+            this.runnable = runnable;
+            this.enqueued = enqueued;
+        }
+
+    }
+
+}
@@ -1,8 +1,11 @@
 package dev.volix.lib.brigadier;
 
-import java.util.UUID;
 import dev.volix.lib.brigadier.parameter.ParameterType;
-import org.bukkit.Bukkit;
+import dev.volix.lib.brigadier.util.PlayerIndex;
+import java.util.List;
+import java.util.function.BiPredicate;
+import lombok.Setter;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 /**
@@ -10,19 +13,76 @@ import org.bukkit.entity.Player;
  */
 public class PlayerParameterType implements ParameterType<Player> {
 
+    /**
+     * The index the players are resolved from, {@code null} to use the one of the {@link BukkitBrigadierPlugin}
+     */
+    private final PlayerIndex<Player> playerIndex;
+
+    /**
+     * Determines if a player will be suggested to the command source
+     * during tab completion. By default players which can't be seen
+     * by the source are hidden.
+     */
+    @Setter private BiPredicate<CommandSender, Player> visibility = (source, player)
+        -> !(source instanceof Player) || ((Player) source).canSee(player);
+
+    /**
+     * Creates the type with the shared player index of the {@link BukkitBrigadierPlugin},
+     * which is looked up as soon as a player is resolved, so the plugin has to be enabled by then.
+     */
+    public PlayerParameterType() {
+        this.playerIndex = null;
+    }
+
+    /**
+     * @param playerIndex The index the players are resolved from, can't be {@code null}
+     */
+    public PlayerParameterType(final PlayerIndex<Player> playerIndex) {
+        if(playerIndex == null)
+            throw new NullPointerException("playerIndex can't be null");
+
+        this.playerIndex = playerIndex;
+    }
+
     @Override
     public Player parse(final String string) {
-        try {
-            final UUID uuid = UUID.fromString(string);
-            return Bukkit.getPlayer(uuid);
-        } catch (final Exception ex) {
-            // string is not an unique id, ignore.
-        }
-        return Bukkit.getPlayerExact(string);
+        return this.getPlayerIndex().get(string);
     }
 
     @Override
     public Class<Player> getTypeClass() {
         return Player.class;
     }
+
+    @Override
+    public String getName() {
+        return "player";
+    }
+
+    @Override
+    public String getParser() {
+        return "minecraft:game_profile";
+    }
+
+    @Override
+    public <S> List<String> complete(final S commandSource, final String prefix) {
+        return this.complete(commandSource, prefix, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public <S> List<String> complete(final S commandSource, final String prefix, final int limit) {
+        final CommandSender source = commandSource instanceof CommandSender ? (CommandSender) commandSource : null;
+        return this.getPlayerIndex().complete(prefix, player -> this.visibility.test(source, player), limit);
+    }
+
+    private PlayerIndex<Player> getPlayerIndex() {
+        if (this.playerIndex != null)
+            return this.playerIndex;
+
+        final BukkitBrigadierPlugin plugin = BukkitBrigadierPlugin.getInstance();
+        if(plugin == null)
+            throw new IllegalStateException("BukkitBrigadierPlugin hasn't been enabled, pass a PlayerIndex instead");
+        return plugin.getPlayerIndex();
+    }
+
 }